@@ -4,9 +4,24 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import main.java.kashiish.autotext.autocomplete.Trie;
+import main.java.kashiish.autotext.autocomplete.TrieCursor;
+import main.java.kashiish.autotext.autocomplete.WordCompleter;
+import main.java.kashiish.autotext.autocorrect.Autocorrector;
 import main.java.kashiish.autotext.autocorrect.BKTree;
+import main.java.kashiish.autotext.autocorrect.QueryOptions;
+import main.java.kashiish.autotext.autocorrect.WordCorrector;
 
 /**
  * Program that performs autocorrect and autocomplete on Strings.
@@ -15,21 +30,35 @@ import main.java.kashiish.autotext.autocorrect.BKTree;
  */
 public class AutoText {
 	
-	private Lexicon lexicon;
-	private Trie trie;
-	private BKTree bktree;
+	/* The number of best completions a ranked Trie caches at each node. */
+	private static final int RANKED_COMPLETIONS = 10;
+	/* Fuzzy autocomplete allows one edit for every this many characters of the prefix. */
+	private static final int CHARS_PER_EDIT = 4;
+	/* The maximum number of edits fuzzy autocomplete allows. */
+	private static final int MAX_EDITS = 2;
+	
+	private WordSet lexicon;
+	private WordCompleter trie;
+	private WordCorrector autocorrector;
+	/* Cached autocorrect and autocomplete results, null if results are not cached, see {@link #setCache(int, long, TimeUnit)} */
+	private volatile ResultCache<String, ArrayList<String>> correctionCache;
+	private volatile ResultCache<String, ArrayList<String>> suggestionCache;
+	/* Runs the searches of batch corrections, null to run them on the calling thread */
+	private volatile ExecutorService executor = ForkJoinPool.commonPool();
 
 	
 	/**
 	 * Creates a new AutoText object with specified file name to create a lexicon with.
 	 * The lexicon will be used to for autocomplete, autocorrect, and validating words. 
+	 * If the lexicon lists words with their counts, autocomplete suggests the most frequent words.
 	 * @param fileName
 	 * @throws IOException
 	 */
 	public AutoText(String lexiconFile) throws IOException {
-		this.lexicon = new Lexicon(lexiconFile);
-		this.trie = new Trie(this.lexicon);
-		this.bktree = new BKTree(this.lexicon);
+		Lexicon lexicon = new Lexicon(lexiconFile);
+		this.lexicon = lexicon;
+		this.trie = createTrie(lexicon);
+		this.autocorrector = new BKTree(lexicon);
 
 	}
 	
@@ -43,8 +72,58 @@ public class AutoText {
 	 */
 	public AutoText(String lexiconFile, String trieFileName, String bktreeFileName) throws IOException {
 		this.lexicon = new Lexicon(lexiconFile);
-		this.trie = new Trie(trieFileName);
-		this.bktree = new BKTree(bktreeFileName);
+		this.trie = createTrie(new Lexicon(trieFileName));
+		this.autocorrector = new BKTree(bktreeFileName);
+	}
+	
+	/*
+	 * Creates a new AutoText object with words that are already built.
+	 * @param lexicon			WordSet
+	 * @param trie				WordCompleter
+	 * @param autocorrector		WordCorrector
+	 */
+	private AutoText(WordSet lexicon, WordCompleter trie, WordCorrector autocorrector) {
+		this.lexicon = lexicon;
+		this.trie = trie;
+		this.autocorrector = autocorrector;
+	}
+	
+	/**
+	 * Opens a snapshot written by {@link #writeSnapshot(String)}. The file is mapped and the AutoText
+	 * runs directly on it: nothing is parsed or rebuilt, so opening is almost instant, and processes
+	 * that open the same file share its pages. The words of the snapshot are read-only, so words can 
+	 * not be added to or removed from it, and fuzzy autocomplete and cursors are not available.
+	 * @param fileName		String
+	 * @return AutoText
+	 * @throws IOException
+	 */
+	public static AutoText open(String fileName) throws IOException {
+		AutoTextSnapshot snapshot = AutoTextSnapshot.open(fileName);
+		return new AutoText(snapshot.getLexicon(), snapshot.getTrie(), snapshot.getBKTree());
+	}
+	
+	/**
+	 * Writes the lexicon, the Trie and the BKTree to a snapshot file, to be opened with {@link #open(String)}.
+	 * Only the QWERTY layout is supported for the BKTree.
+	 * @param fileName		String
+	 * @throws IOException
+	 * @throws IllegalStateException if the autocomplete words are not a Trie or the autocorrect words are not a BKTree
+	 */
+	public void writeSnapshot(String fileName) throws IOException {
+		if(!(autocorrector instanceof BKTree))
+			throw new IllegalStateException("Only the words of a BKTree can be written to a snapshot.");
+		AutoTextSnapshot.write(fileName, lexicon, getTrie(), (BKTree) autocorrector);
+	}
+	
+	/*
+	 * Creates a Trie from the lexicon, ranking completions if the lexicon has word counts.
+	 * @param lexicon		Lexicon
+	 * @return Trie
+	 * @throws IOException
+	 */
+	private Trie createTrie(Lexicon lexicon) throws IOException {
+		if(lexicon.isWeighted()) return new Trie(lexicon, RANKED_COMPLETIONS);
+		return new Trie(lexicon);
 	}
 	
 	/**
@@ -57,20 +136,254 @@ public class AutoText {
 	 */
 	public ArrayList<String> autocorrect(String word) {
 		if(isValidWord(word)) return null;
-		ArrayList<String> words = bktree.getClosestWords(word);
+		ArrayList<String> words = getClosestWords(word);
+		if(words.size() == 0) return null;
+		return words;
+	}
+	
+	/*
+	 * Gets the closest words from the autocorrector, or from the cache if the word was corrected before.
+	 * @param word					String
+	 * @return ArrayList<String> 
+	 */
+	ArrayList<String> getClosestWords(String word) {
+		ResultCache<String, ArrayList<String>> cache = this.correctionCache;
+		if(cache == null || word == null) return autocorrector.getClosestWords(word);
+		
+		ArrayList<String> words = cache.get(word);
+		if(words != null) return new ArrayList<String>(words);
+		
+		long generation = cache.getGeneration();
+		words = autocorrector.getClosestWords(word);
+		cache.put(word, new ArrayList<String>(words), generation);
+		return words;
+	}
+	
+	/**
+	 * Corrects a batch of words, like calling {@link #autocorrect(String)} on each of them. Each distinct 
+	 * word is checked against the lexicon and searched for only once, however often it is repeated, and 
+	 * the searches of the misspelled words run in parallel on the executor (see {@link #setExecutor(ExecutorService)}).
+	 * Null and empty words are skipped.
+	 * @param words					List<String>
+	 * @return ArrayList<Correction>	one for each misspelled word that has corrections, in the order of the words
+	 */
+	public ArrayList<Correction> correctAll(List<String> words) {
+		return correctAll(words, null);
+	}
+	
+	/**
+	 * Corrects the words of a text, like {@link #correctAll(List)}. A word is a run of letters, which 
+	 * may have apostrophes between them (ex. "don't"), anything else separates words.
+	 * @param text					CharSequence
+	 * @return ArrayList<Correction>	one for each misspelled word that has corrections, in the order of the words, 
+	 * 									with the offsets of the words in the text
+	 */
+	public ArrayList<Correction> correctText(CharSequence text) {
+		ArrayList<String> words = new ArrayList<String>();
+		ArrayList<Integer> starts = new ArrayList<Integer>();
+		
+		int i = 0;
+		while(i < text.length()) {
+			if(!Character.isLetter(text.charAt(i))) {
+				i++;
+				continue;
+			}
+			
+			int start = i;
+			while(i < text.length() && (Character.isLetter(text.charAt(i)) || 
+					text.charAt(i) == '\'' && i + 1 < text.length() && Character.isLetter(text.charAt(i + 1)))) {
+				i++;
+			}
+			words.add(text.subSequence(start, i).toString());
+			starts.add(start);
+		}
+		
+		return correctAll(words, starts);
+	}
+	
+	/*
+	 * Corrects a batch of words, see {@link #correctAll(List)}.
+	 * @param words					List<String>
+	 * @param starts				List<Integer>, offsets of the words in their text, null if they are not from a text
+	 * @return ArrayList<Correction>
+	 */
+	private ArrayList<Correction> correctAll(List<String> words, List<Integer> starts) {
+		//positions of each distinct misspelled word, in the order they first appear
+		LinkedHashMap<String, ArrayList<Integer>> misspelled = new LinkedHashMap<String, ArrayList<Integer>>();
+		HashSet<String> valid = new HashSet<String>();
+		
+		for(int i = 0; i < words.size(); i++) {
+			String word = words.get(i);
+			if(word == null || word.length() == 0 || valid.contains(word)) continue;
+			
+			ArrayList<Integer> positions = misspelled.get(word);
+			if(positions == null) {
+				if(isValidWord(word)) {
+					valid.add(word);
+					continue;
+				}
+				positions = new ArrayList<Integer>();
+				misspelled.put(word, positions);
+			}
+			positions.add(i);
+		}
+		
+		ArrayList<String> distinct = new ArrayList<String>(misspelled.keySet());
+		ArrayList<ArrayList<String>> results = getClosestWords(distinct);
+		
+		Correction[] corrections = new Correction[words.size()];
+		int found = 0;
+		int k = 0;
+		for(Entry<String, ArrayList<Integer>> entry : misspelled.entrySet()) {
+			ArrayList<String> closest = results.get(k++);
+			if(closest.size() == 0) continue;
+			
+			for(int position : entry.getValue()) {
+				int start = starts == null ? -1 : starts.get(position);
+				corrections[position] = new Correction(entry.getKey(), position, start, new ArrayList<String>(closest));
+				found++;
+			}
+		}
+		
+		ArrayList<Correction> sorted = new ArrayList<Correction>(found);
+		for(Correction correction : corrections) {
+			if(correction != null) sorted.add(correction);
+		}
+		return sorted;
+	}
+	
+	/*
+	 * Gets the closest words to each of the words, searching for them in parallel on the executor.
+	 * @param words					ArrayList<String>, distinct words
+	 * @return ArrayList<ArrayList<String>>	the closest words of each word, in the same order
+	 */
+	private ArrayList<ArrayList<String>> getClosestWords(ArrayList<String> words) {
+		ArrayList<ArrayList<String>> results = new ArrayList<ArrayList<String>>(words.size());
+		ExecutorService executor = this.executor;
+		
+		//a single search is not worth handing to another thread
+		if(executor == null || words.size() < 2) {
+			for(String word : words) {
+				results.add(getClosestWords(word));
+			}
+			return results;
+		}
+		
+		ArrayList<Callable<ArrayList<String>>> tasks = new ArrayList<Callable<ArrayList<String>>>(words.size());
+		for(final String word : words) {
+			tasks.add(new Callable<ArrayList<String>>() {
+				@Override
+				public ArrayList<String> call() {
+					return getClosestWords(word);
+				}
+			});
+		}
+		
+		try {
+			for(Future<ArrayList<String>> future : executor.invokeAll(tasks)) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while correcting words.", ex);
+		} catch (ExecutionException ex) {
+			if(ex.getCause() instanceof RuntimeException) throw (RuntimeException) ex.getCause();
+			if(ex.getCause() instanceof Error) throw (Error) ex.getCause();
+			throw new IllegalStateException(ex.getCause());
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Like {@link #autocorrect(String)}, with the tolerance and number of corrections of the query 
+	 * options instead of the defaults, for example a tolerance that depends on the word's length 
+	 * ({@link QueryOptions#LENGTH_ADAPTIVE}).
+	 * @param word					String
+	 * @param options				QueryOptions
+	 * @return ArrayList<String> 
+	 */
+	public ArrayList<String> autocorrect(String word, QueryOptions options) {
+		if(isValidWord(word)) return null;
+		ArrayList<String> words = autocorrector.getClosestWords(word, options);
 		if(words.size() == 0) return null;
 		return words;
 	}
 	
 	/**
 	 * Gets a list of words that have the given prefix and sorts them based on String length. 
+	 * If the Trie ranks completions, the most frequent words are returned instead, most frequent first.
 	 * If no words were found in the Trie, an empty set will be returned. 
 	 * @param prefix			String
 	 * @return ArrayList<String>
 	 */
 	public ArrayList<String> autocomplete(String prefix) {
-		ArrayList<String> result = trie.getWordsWithPrefix(prefix);
-		Collections.sort(result, new Comparator<String>() {
+		ResultCache<String, ArrayList<String>> cache = this.suggestionCache;
+		if(cache == null || prefix == null) return sortSuggestions(trie.getWordsWithPrefix(prefix));
+		
+		ArrayList<String> words = cache.get(prefix);
+		if(words != null) return new ArrayList<String>(words);
+		
+		long generation = cache.getGeneration();
+		words = sortSuggestions(trie.getWordsWithPrefix(prefix));
+		cache.put(prefix, new ArrayList<String>(words), generation);
+		return words;
+	}
+	
+	/**
+	 * Gets a list of words that have the cursor's current prefix, sorted the same way as 
+	 * {@link #autocomplete(String)}. 
+	 * @param cursor			TrieCursor, created by {@link #getAutocompleteCursor()}
+	 * @return ArrayList<String>
+	 */
+	public ArrayList<String> autocomplete(TrieCursor cursor) {
+		return sortSuggestions(cursor.getWords());
+	}
+	
+	/**
+	 * Gets a list of words that start with a prefix close to the given prefix, so a typo in the prefix 
+	 * still gives suggestions (ex. "recie" suggests "receive"). One edit is allowed for every four 
+	 * characters of the prefix, up to two. Words are sorted by the number of edits.
+	 * @param prefix			String
+	 * @return ArrayList<String>
+	 * @throws IllegalStateException if the AutoText was opened from a snapshot
+	 */
+	public ArrayList<String> autocompleteFuzzy(String prefix) {
+		if(prefix == null) return new ArrayList<String>();
+		int maxEdits = Math.min(MAX_EDITS, prefix.length() / CHARS_PER_EDIT);
+		return getTrie().getWordsWithFuzzyPrefix(prefix, maxEdits);
+	}
+	
+	/**
+	 * Creates a cursor to autocomplete a word as it is typed. Typing a character or deleting one only 
+	 * moves the cursor by one node, instead of walking the whole prefix again.
+	 * @return TrieCursor
+	 * @throws IllegalStateException if the AutoText was opened from a snapshot
+	 */
+	public TrieCursor getAutocompleteCursor() {
+		return getTrie().cursor();
+	}
+	
+	/*
+	 * Gets the Trie, for the features that the read-only autocomplete words of a snapshot do not have.
+	 * @return Trie
+	 * @throws IllegalStateException if the AutoText was opened from a snapshot
+	 */
+	private Trie getTrie() {
+		if(!(trie instanceof Trie))
+			throw new IllegalStateException("The autocomplete words of a snapshot can only complete prefixes.");
+		return (Trie) trie;
+	}
+	
+	/*
+	 * Sorts suggestions based on String length, unless the Trie already ranked them.
+	 * @param suggestions			ArrayList<String>
+	 * @return ArrayList<String>
+	 */
+	private ArrayList<String> sortSuggestions(ArrayList<String> suggestions) {
+		if(trie.isRanked()) return suggestions;
+		
+		Collections.sort(suggestions, new Comparator<String>() {
 			@Override
 			public int compare(String o1, String o2) {
 				return o1.length() - o2.length();
@@ -78,7 +391,7 @@ public class AutoText {
 			
 		});
 		
-		return result;
+		return suggestions;
 	}
 	
 	/**
@@ -90,12 +403,95 @@ public class AutoText {
 		return lexicon.containsWord(word);
 	}
 	
+	/**
+	 * Replaces the collection of words used to validate words, for example with a 
+	 * {@link main.java.kashiish.autotext.autocomplete.DAWG} built from the same lexicon, which 
+	 * takes far less memory than a Lexicon, or a {@link CompactLexicon}, which keeps the words 
+	 * outside the heap.
+	 * @param lexicon		WordSet
+	 */
+	public void setLexicon(WordSet lexicon) {
+		this.lexicon = lexicon;
+	}
+	
+	/**
+	 * Replaces the words used for autocorrect, for example with a 
+	 * {@link main.java.kashiish.autotext.autocorrect.SymSpell} index, which finds corrections much 
+	 * faster than the BKTree but takes more memory, or a 
+	 * {@link main.java.kashiish.autotext.autocorrect.QGramIndex}, which only compares the words that 
+	 * share most of their q-grams with the misspelled word. A read-only autocorrector, like a 
+	 * {@link main.java.kashiish.autotext.autocorrect.FrozenBKTree}, is only queried: words are no 
+	 * longer removed from or added to the autocorrect words.
+	 * @param autocorrector		WordCorrector
+	 */
+	public void setAutocorrector(WordCorrector autocorrector) {
+		this.autocorrector = autocorrector;
+		invalidate(correctionCache);
+	}
+	
+	/**
+	 * Caches the results of {@link #autocorrect(String)} and {@link #autocomplete(String)}, so a word or 
+	 * prefix that is queried again is a lookup instead of a search. Each cache keeps up to `maxEntries` 
+	 * results, dropping the least recently used ones, and recomputes results older than `timeToLive`. 
+	 * The caches are cleared whenever words are added or removed through this AutoText.
+	 * @param maxEntries			int, the maximum number of results kept by each cache
+	 * @param timeToLive			long
+	 * @param unit					TimeUnit, unit of `timeToLive`
+	 */
+	public void setCache(int maxEntries, long timeToLive, TimeUnit unit) {
+		this.correctionCache = new ResultCache<String, ArrayList<String>>(maxEntries, timeToLive, unit);
+		this.suggestionCache = new ResultCache<String, ArrayList<String>>(maxEntries, timeToLive, unit);
+	}
+	
+	/**
+	 * Sets the executor that runs the searches of {@link #correctAll(List)} and {@link #correctText(CharSequence)}.
+	 * Defaults to the common ForkJoinPool. The autocorrector is searched from several threads at once, so 
+	 * words must not be added to it while a batch is corrected, unless it is a BKTree in concurrent mode.
+	 * @param executor			ExecutorService, null to search on the calling thread
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+	
+	/**
+	 * Stops caching results.
+	 */
+	public void removeCache() {
+		this.correctionCache = null;
+		this.suggestionCache = null;
+	}
+	
+	/**
+	 * Gets the cache of autocorrect results, for example to read its hit and miss counts.
+	 * @return ResultCache<String, ArrayList<String>>		null if results are not cached
+	 */
+	public ResultCache<String, ArrayList<String>> getCorrectionCache() {
+		return this.correctionCache;
+	}
+	
+	/**
+	 * Gets the cache of autocomplete results, for example to read its hit and miss counts.
+	 * @return ResultCache<String, ArrayList<String>>		null if results are not cached
+	 */
+	public ResultCache<String, ArrayList<String>> getSuggestionCache() {
+		return this.suggestionCache;
+	}
+	
+	/*
+	 * Invalidates a cache, if results are cached.
+	 * @param cache			ResultCache<String, ArrayList<String>>
+	 */
+	private void invalidate(ResultCache<String, ArrayList<String>> cache) {
+		if(cache != null) cache.invalidate();
+	}
+	
 	/**
 	 * Sets the maximum number of auto-suggestions to return.
 	 * @param numSuggestions		int
 	 */
 	public void setMaxSuggestions(int numSuggestions) {
 		trie.setMaxMatches(numSuggestions);
+		invalidate(suggestionCache);
 	}
 	
 	/**
@@ -103,25 +499,57 @@ public class AutoText {
 	 * @param numCorrections		int
 	 */
 	public void setMaxCorrections(int numCorrections) {
-		bktree.setMaxMatches(numCorrections);
+		autocorrector.setMaxMatches(numCorrections);
+		invalidate(correctionCache);
+	}
+	
+	/**
+	 * Removes a word from the autocomplete (Trie) and autocorrect (BKTree) words, so it is no longer 
+	 * suggested. Words used to validate words are not changed, and neither are read-only words (see 
+	 * {@link #open(String)} and {@link #setAutocorrector(WordCorrector)}).
+	 * @param word			String
+	 * @return boolean		true if the word was removed from the Trie or the BKTree
+	 */
+	public boolean removeWord(String word) {
+		boolean removed = trie instanceof Trie && ((Trie) trie).removeWord(word);
+		if(autocorrector instanceof Autocorrector) removed = ((Autocorrector) autocorrector).removeWord(word) || removed;
+		invalidate(suggestionCache);
+		invalidate(correctionCache);
+		return removed;
+	}
+	
+	/**
+	 * Turns concurrent mode of the Trie and the BKTree on or off. In concurrent mode, words can be added
+	 * from one thread while other threads autocomplete and autocorrect, without locking the readers.
+	 * @param concurrent		boolean
+	 */
+	public void setConcurrent(boolean concurrent) {
+		if(trie instanceof Trie) ((Trie) trie).setConcurrent(concurrent);
+		if(autocorrector instanceof BKTree) ((BKTree) autocorrector).setConcurrent(concurrent);
 	}
 	
 	/**
 	 * Adds words from a specific file name to Autocomplete program (Trie).
 	 * @param fileName
 	 * @throws IOException 
+	 * @throws IllegalStateException if the AutoText was opened from a snapshot
 	 */
 	public void addWordsFromFileAutocomplete(String fileName) throws IOException {
-		trie.addWordsFromFile(fileName);
+		getTrie().addWordsFromFile(fileName);
+		invalidate(suggestionCache);
 	}
 	
 	/**
 	 * Adds words from a specific file name to Autocorrect program (BKTree).
 	 * @param fileName
 	 * @throws IOException 
+	 * @throws IllegalStateException if the autocorrector is read-only, see {@link #setAutocorrector(WordCorrector)}
 	 */
 	public void addWordsFromFileAutocorrect(String fileName) throws IOException {
-		bktree.addWordsFromFile(fileName);
+		if(!(autocorrector instanceof Autocorrector))
+			throw new IllegalStateException("Words can not be added to a read-only autocorrector.");
+		((Autocorrector) autocorrector).addWordsFromFile(fileName);
+		invalidate(correctionCache);
 	}
 	
 
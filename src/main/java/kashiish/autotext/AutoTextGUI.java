@@ -7,6 +7,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -18,6 +19,7 @@ import javax.swing.JList;
 import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
@@ -25,6 +27,8 @@ import javax.swing.event.ListSelectionListener;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Document;
 
+import main.java.kashiish.autotext.autocomplete.TrieCursor;
+
 @SuppressWarnings("serial")
 public class AutoTextGUI extends JFrame implements ActionListener {
 	
@@ -45,6 +49,8 @@ public class AutoTextGUI extends JFrame implements ActionListener {
 	private JLabel autocorrectionLabel;
 	/* AutoText instance */
 	private AutoText autotext;
+	/* Follows the last word of the text field as it is typed */
+	private TrieCursor autocompleteCursor;
 	/* textField.setText interferes with DocumentListener, so we need a flag for when text field text 
 	 * is updated with selected value from autocomplete suggestions. This makes sure that DocumentListener's
 	 * update method is not called. 
@@ -61,6 +67,7 @@ public class AutoTextGUI extends JFrame implements ActionListener {
 		try {
 			
 			this.autotext = new AutoText("src/main/resources/20k.txt");
+			this.autocompleteCursor = autotext.getAutocompleteCursor();
 	
 			initializeTextField();
 			
@@ -79,18 +86,34 @@ public class AutoTextGUI extends JFrame implements ActionListener {
 	@Override
 	public void actionPerformed(ActionEvent e) {
 		String text = this.textField.getText();
-		String[] words = text.split(" ");
 		this.submitLabel.setText("You entered: " + text);
-		StringBuilder autocorrectionLabelText = new StringBuilder("<html><body>");
-		for(String word : words) {
-			ArrayList<String> corrections = autotext.autocorrect(word);
-			if(corrections == null) continue;
-			autocorrectionLabelText.append("Found corrections for " + word + ": " + String.join(", ", corrections) + "<br>");
-		}
-		
-		autocorrectionLabelText.append("</body></html>");
 		
-		this.autocorrectionLabel.setText(autocorrectionLabelText.toString());
+		//the whole sentence is corrected in one batch, off the event dispatch thread
+		new SwingWorker<ArrayList<Correction>, Void>() {
+
+			@Override
+			protected ArrayList<Correction> doInBackground() {
+				return autotext.correctText(text);
+			}
+			
+			@Override
+			protected void done() {
+				StringBuilder autocorrectionLabelText = new StringBuilder("<html><body>");
+				try {
+					for(Correction correction : get()) {
+						autocorrectionLabelText.append("Found corrections for " + correction.getWord() + ": " + 
+													   String.join(", ", correction.getCorrections()) + "<br>");
+					}
+				} catch (InterruptedException | ExecutionException e1) {
+					e1.printStackTrace();
+				}
+				
+				autocorrectionLabelText.append("</body></html>");
+				
+				autocorrectionLabel.setText(autocorrectionLabelText.toString());
+			}
+			
+		}.execute();
 		
 	}
 	
@@ -129,6 +152,7 @@ public class AutoTextGUI extends JFrame implements ActionListener {
 					    public void run() { 
 					    	updateFromSelectedValue = true;
 							textField.setText(String.join(" ", words)); 
+							autocompleteCursor.setPrefix(words[words.length - 1]);
 							updateFromSelectedValue = false;
 					    }
 					});
@@ -161,9 +185,10 @@ public class AutoTextGUI extends JFrame implements ActionListener {
 			private void updateAutocomplete(DocumentEvent e) {
 				Document doc = (Document) e.getDocument();
 				try {
-					String text = doc.getText(0, doc.getLength());
-					String[] words = text.split(" ");
-					ArrayList<String> suggestions = autotext.autocomplete(words[words.length - 1].trim());
+					moveCursor(e, doc);
+					ArrayList<String> suggestions = autotext.autocomplete(autocompleteCursor);
+					//the word may have a typo
+					if(suggestions.isEmpty()) suggestions = autotext.autocompleteFuzzy(autocompleteCursor.getPrefix());
 					DefaultListModel<String> model = new DefaultListModel<String>();
 					for(String suggestion : suggestions) { model.addElement(suggestion); }
 					suggestionsList.setModel(model);
@@ -172,6 +197,31 @@ public class AutoTextGUI extends JFrame implements ActionListener {
 				}
 			}
 			
+			/*
+			 * Typing or deleting at the end of the text only moves the cursor by the changed characters. 
+			 * Any other edit moves the cursor to the last word of the text.
+			 */
+			private void moveCursor(DocumentEvent e, Document doc) throws BadLocationException {
+				int offset = e.getOffset();
+				int length = e.getLength();
+				
+				if(e.getType() == DocumentEvent.EventType.INSERT && offset + length == doc.getLength()) {
+					for(char c : doc.getText(offset, length).toCharArray()) {
+						if(c == ' ') autocompleteCursor.reset();
+						else autocompleteCursor.append(c);
+					}
+					return;
+				}
+				
+				if(e.getType() == DocumentEvent.EventType.REMOVE && offset == doc.getLength() && length <= autocompleteCursor.length()) {
+					for(int i = 0; i < length; i++) { autocompleteCursor.backspace(); }
+					return;
+				}
+				
+				String text = doc.getText(0, doc.getLength());
+				autocompleteCursor.setPrefix(text.substring(text.lastIndexOf(' ') + 1));
+			}
+			
 		};
 		
 		this.textField = new JTextField(50);
@@ -0,0 +1,135 @@
+package main.java.kashiish.autotext;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import main.java.kashiish.autotext.autocomplete.MappedTrie;
+import main.java.kashiish.autotext.autocomplete.Trie;
+import main.java.kashiish.autotext.autocorrect.BKTree;
+import main.java.kashiish.autotext.autocorrect.MappedBKTree;
+
+/**
+ * Binary snapshot of the words of an AutoText, written by {@link AutoText#writeSnapshot(String)} and
+ * opened by {@link AutoText#open(String)} with {@link FileChannel#map}: the AutoText runs directly on
+ * the mapped file, nothing is parsed or rebuilt, so opening a snapshot is almost instant and processes
+ * opening the same file share its pages.
+ *
+ * File format (big-endian): magic number, version, then the offset and length of the lexicon, trie
+ * and BKTree sections.
+ * @author kashish
+ *
+ */
+class AutoTextSnapshot {
+
+	/* First bytes of every snapshot ("ATXT") */
+	private static final int MAGIC = 0x41545854;
+	/* Version of the file format, increased whenever the format changes */
+	private static final int VERSION = 2;
+	/* Size of the header: magic, version and the offset and length of 3 sections */
+	private static final int HEADER_SIZE = 8 * Integer.BYTES;
+
+	private MappedLexicon lexicon;
+	private MappedTrie trie;
+	private MappedBKTree bktree;
+
+	/*
+	 * Creates a new AutoTextSnapshot from a mapped snapshot file.
+	 * @param buffer		ByteBuffer
+	 * @throws IOException
+	 */
+	private AutoTextSnapshot(ByteBuffer buffer) throws IOException {
+		if(buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+			throw new IOException("Not an AutoText snapshot.");
+		if(buffer.getInt(4) != VERSION)
+			throw new IOException("Unsupported snapshot version: " + buffer.getInt(4));
+
+		this.lexicon = new MappedLexicon(section(buffer, 0));
+		this.trie = new MappedTrie(section(buffer, 1));
+		this.bktree = new MappedBKTree(section(buffer, 2));
+	}
+
+	/*
+	 * Opens a snapshot file written by {@link #write(String, WordSet, Trie, BKTree)}.
+	 * @param fileName		String
+	 * @return AutoTextSnapshot
+	 * @throws IOException
+	 */
+	static AutoTextSnapshot open(String fileName) throws IOException {
+		try(RandomAccessFile file = new RandomAccessFile(fileName, "r"); FileChannel channel = file.getChannel()) {
+			//the mapping stays valid after the channel is closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new AutoTextSnapshot(buffer);
+		}
+	}
+
+	/*
+	 * Writes a snapshot of a lexicon, a Trie and a BKTree to a file.
+	 * @param fileName		String
+	 * @param lexicon		WordSet, words used to validate words
+	 * @param trie			Trie, words used for autocomplete
+	 * @param bktree		BKTree, words used for autocorrect
+	 * @throws IOException
+	 */
+	static void write(String fileName, WordSet lexicon, Trie trie, BKTree bktree) throws IOException {
+		ByteArrayOutputStream[] sections = new ByteArrayOutputStream[3];
+		for(int i = 0; i < sections.length; i++) {
+			sections[i] = new ByteArrayOutputStream();
+		}
+
+		MappedLexicon.write(lexicon, new DataOutputStream(sections[0]));
+		MappedTrie.write(trie, new DataOutputStream(sections[1]));
+		MappedBKTree.write(bktree, new DataOutputStream(sections[2]));
+
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+
+			int offset = HEADER_SIZE;
+			for(ByteArrayOutputStream section : sections) {
+				out.writeInt(offset);
+				out.writeInt(section.size());
+				offset += section.size();
+			}
+
+			for(ByteArrayOutputStream section : sections) {
+				section.writeTo(out);
+			}
+		}
+	}
+
+	MappedLexicon getLexicon() {
+		return this.lexicon;
+	}
+
+	MappedTrie getTrie() {
+		return this.trie;
+	}
+
+	MappedBKTree getBKTree() {
+		return this.bktree;
+	}
+
+	/*
+	 * Gets the section at the given position in the header.
+	 * @param buffer		ByteBuffer, the whole snapshot
+	 * @param index			int
+	 * @return SnapshotSection
+	 */
+	private static SnapshotSection section(ByteBuffer buffer, int index) {
+		int offset = buffer.getInt(2 * Integer.BYTES + index * 2 * Integer.BYTES);
+		int length = buffer.getInt(3 * Integer.BYTES + index * 2 * Integer.BYTES);
+
+		ByteBuffer view = buffer.duplicate();
+		view.position(offset);
+		view.limit(offset + length);
+		return new SnapshotSection(view.slice());
+	}
+
+}
@@ -0,0 +1,370 @@
+package main.java.kashiish.autotext;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Read-only lexicon that keeps its words encoded as UTF-8 in one buffer outside the heap, either
+ * allocated directly or mapped from a file written by {@link #write(String)}. A word is found with a
+ * minimal perfect hash: every word of the lexicon hashes to its own slot, so a lookup hashes the word,
+ * reads the slot and compares the word with the bytes stored there, without allocating anything.
+ *
+ * The hash is built by hash and displace: words are split into buckets of about four words, and each
+ * bucket, largest first, gets the first displacement that sends all of its words to free slots. Buckets
+ * of one word take the next free slot directly. This stores one int per bucket and one offset per word,
+ * next to the bytes of the words.
+ *
+ * Like {@link Lexicon#containsWord(String)}, lookups are case sensitive.
+ * @author kashish
+ *
+ */
+public class CompactLexicon implements WordSet {
+
+	/* The average number of words of a bucket. */
+	private static final int BUCKET_SIZE = 4;
+	/* The maximum number of displacements tried for a bucket. */
+	private static final int MAX_DISPLACEMENT = 1 << 24;
+	/* Spreads the displacements over the slots. */
+	private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+	/* The number of words, and of slots */
+	private int numWords;
+	/* The number of buckets */
+	private int numBuckets;
+	/* Offsets of the displacements, the word offsets and the words in `buffer` */
+	private int displacementStart;
+	private int offsetStart;
+	private int wordStart;
+	/*
+	 * Holds the number of words, the number of buckets, the displacement of each bucket, the offset of the
+	 * word of each slot plus the end of the last word, and the UTF-8 bytes of the words in slot order.
+	 * Ints are little-endian, the order of most processors.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Creates a new CompactLexicon with the words of a lexicon, stored in a direct buffer.
+	 * @param lexicon		Lexicon
+	 */
+	public CompactLexicon(Lexicon lexicon) {
+		this(build(new ArrayList<String>(lexicon.getLexicon())));
+	}
+
+	/*
+	 * Creates a new CompactLexicon from a buffer in the format of {@link #build(ArrayList)}.
+	 * @param buffer		ByteBuffer
+	 */
+	private CompactLexicon(ByteBuffer buffer) {
+		this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+		this.numWords = buffer.getInt(0);
+		this.numBuckets = buffer.getInt(Integer.BYTES);
+		this.displacementStart = 2 * Integer.BYTES;
+		this.offsetStart = displacementStart + numBuckets * Integer.BYTES;
+		this.wordStart = offsetStart + (numWords + 1) * Integer.BYTES;
+	}
+
+	/**
+	 * Opens a CompactLexicon written by {@link #write(String)}. The file is mapped, nothing is read
+	 * into the heap.
+	 * @param fileName		String
+	 * @return CompactLexicon
+	 * @throws IOException
+	 */
+	public static CompactLexicon open(String fileName) throws IOException {
+		try(RandomAccessFile file = new RandomAccessFile(fileName, "r"); FileChannel channel = file.getChannel()) {
+			//the mapping stays valid after the channel is closed
+			return new CompactLexicon(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Writes the lexicon to a file, to be opened with {@link #open(String)}.
+	 * @param fileName		String
+	 * @throws IOException
+	 */
+	public void write(String fileName) throws IOException {
+		try(FileOutputStream out = new FileOutputStream(fileName); FileChannel channel = out.getChannel()) {
+			ByteBuffer view = buffer.duplicate();
+			view.clear();
+			while(view.hasRemaining()) {
+				channel.write(view);
+			}
+		}
+	}
+
+	/**
+	 * Checks if the given word is in the lexicon.
+	 * @param word		String
+	 * @return boolean
+	 */
+	@Override
+	public boolean containsWord(String word) {
+		if(word == null || numWords == 0) return false;
+		return matches(getSlot(hash(word)), word);
+	}
+
+	@Override
+	public int getNumWords() {
+		return this.numWords;
+	}
+
+	/**
+	 * Gets all the words of the lexicon, decoding them from the buffer, in the order of their slots.
+	 * @return ArrayList<String>
+	 */
+	@Override
+	public ArrayList<String> getWords() {
+		ArrayList<String> words = new ArrayList<String>(numWords);
+		ByteBuffer view = buffer.duplicate();
+		for(int slot = 0; slot < numWords; slot++) {
+			int start = wordStart + buffer.getInt(offsetStart + slot * Integer.BYTES);
+			int end = wordStart + buffer.getInt(offsetStart + (slot + 1) * Integer.BYTES);
+
+			byte[] bytes = new byte[end - start];
+			view.position(start);
+			view.get(bytes);
+			words.add(new String(bytes, StandardCharsets.UTF_8));
+		}
+		return words;
+	}
+
+	/**
+	 * Gets the number of bytes the lexicon takes in its buffer.
+	 * @return int
+	 */
+	public int getSize() {
+		return this.buffer.capacity();
+	}
+
+	/*
+	 * Builds the perfect hash of the words and stores it, with the words, in a direct buffer.
+	 * @param words			ArrayList<String>, distinct words
+	 * @return ByteBuffer
+	 */
+	private static ByteBuffer build(ArrayList<String> words) {
+		int n = words.size();
+		int r = Math.max(1, (n + BUCKET_SIZE - 1) / BUCKET_SIZE);
+
+		long[] hashes = new long[n];
+		int[] bucketStart = new int[r + 1];
+		for(int i = 0; i < n; i++) {
+			hashes[i] = hash(words.get(i));
+			bucketStart[getBucket(hashes[i], r) + 1]++;
+		}
+		for(int b = 0; b < r; b++) {
+			bucketStart[b + 1] += bucketStart[b];
+		}
+
+		//words of each bucket, bucket by bucket
+		int[] members = new int[n];
+		int[] filled = new int[r];
+		for(int i = 0; i < n; i++) {
+			int b = getBucket(hashes[i], r);
+			members[bucketStart[b] + filled[b]++] = i;
+		}
+
+		//buckets sorted from largest to smallest
+		int maxSize = 0;
+		for(int b = 0; b < r; b++) {
+			maxSize = Math.max(maxSize, filled[b]);
+		}
+		int[] sizeStart = new int[maxSize + 2];
+		for(int b = 0; b < r; b++) {
+			sizeStart[maxSize - filled[b] + 1]++;
+		}
+		for(int s = 0; s <= maxSize; s++) {
+			sizeStart[s + 1] += sizeStart[s];
+		}
+		int[] order = new int[r];
+		for(int b = 0; b < r; b++) {
+			order[sizeStart[maxSize - filled[b]]++] = b;
+		}
+
+		int[] displacements = new int[r];
+		int[] slotWords = new int[n];
+		boolean[] taken = new boolean[n];
+		int[] slots = new int[maxSize];
+		int nextFree = 0;
+
+		for(int b : order) {
+			int size = filled[b];
+			if(size == 0) break;
+
+			if(size == 1) {
+				while(taken[nextFree]) nextFree++;
+				taken[nextFree] = true;
+				slotWords[nextFree] = members[bucketStart[b]];
+				displacements[b] = -nextFree - 1;
+				continue;
+			}
+
+			int displacement = findDisplacement(hashes, members, bucketStart[b], size, taken, slots, n);
+			displacements[b] = displacement;
+			for(int k = 0; k < size; k++) {
+				taken[slots[k]] = true;
+				slotWords[slots[k]] = members[bucketStart[b] + k];
+			}
+		}
+
+		byte[][] bytes = new byte[n][];
+		int length = 0;
+		for(int slot = 0; slot < n; slot++) {
+			bytes[slot] = words.get(slotWords[slot]).getBytes(StandardCharsets.UTF_8);
+			length += bytes[slot].length;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect((2 + r + n + 1) * Integer.BYTES + length).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(n);
+		buffer.putInt(r);
+		for(int displacement : displacements) {
+			buffer.putInt(displacement);
+		}
+		int offset = 0;
+		for(byte[] word : bytes) {
+			buffer.putInt(offset);
+			offset += word.length;
+		}
+		buffer.putInt(offset);
+		for(byte[] word : bytes) {
+			buffer.put(word);
+		}
+		buffer.clear();
+		return buffer;
+	}
+
+	/*
+	 * Finds the first displacement that sends every word of a bucket to a free slot of its own.
+	 * @param hashes			long[], hash of each word
+	 * @param members			int[], words of the buckets
+	 * @param start				int, index of the bucket's first word in `members`
+	 * @param size				int, number of words of the bucket
+	 * @param taken				boolean[], slots of the buckets placed before
+	 * @param slots				int[], set to the slot of each word of the bucket
+	 * @param n					int, number of slots
+	 * @return int				the displacement
+	 */
+	private static int findDisplacement(long[] hashes, int[] members, int start, int size, boolean[] taken, int[] slots, int n) {
+		for(int displacement = 0; displacement < MAX_DISPLACEMENT; displacement++) {
+			boolean free = true;
+			for(int k = 0; k < size && free; k++) {
+				int slot = getSlot(hashes[members[start + k]], displacement, n);
+				if(taken[slot]) free = false;
+				for(int j = 0; j < k && free; j++) {
+					if(slots[j] == slot) free = false;
+				}
+				slots[k] = slot;
+			}
+			if(free) return displacement;
+		}
+		throw new IllegalStateException("Could not build a perfect hash of the words.");
+	}
+
+	/*
+	 * Gets the slot a word would be in.
+	 * @param hash				long, hash of the word
+	 * @return int
+	 */
+	private int getSlot(long hash) {
+		int displacement = buffer.getInt(displacementStart + getBucket(hash, numBuckets) * Integer.BYTES);
+		if(displacement < 0) return -displacement - 1;
+		return getSlot(hash, displacement, numWords);
+	}
+
+	/*
+	 * Gets the slot of a word of a bucket with a displacement.
+	 * @param hash				long
+	 * @param displacement		int
+	 * @param n					int, number of slots
+	 * @return int
+	 */
+	private static int getSlot(long hash, int displacement, int n) {
+		return (int) Long.remainderUnsigned(mix(hash + displacement * GOLDEN_RATIO), n);
+	}
+
+	/*
+	 * Gets the bucket of a word.
+	 * @param hash				long
+	 * @param r					int, number of buckets
+	 * @return int
+	 */
+	private static int getBucket(long hash, int r) {
+		return (int) ((hash >>> 32) % r);
+	}
+
+	/*
+	 * Hashes the characters of a word.
+	 * @param word				String
+	 * @return long
+	 */
+	private static long hash(String word) {
+		long hash = 0xCBF29CE484222325L;
+		for(int i = 0; i < word.length(); i++) {
+			hash = (hash ^ word.charAt(i)) * 0x100000001B3L;
+		}
+		return mix(hash);
+	}
+
+	/*
+	 * Mixes the bits of a hash, so every bit of the input changes about half of the bits of the output.
+	 * @param hash				long
+	 * @return long
+	 */
+	private static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB9FE1A85EC53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	/*
+	 * Compares the UTF-8 bytes stored in a slot with a word, encoding the word's characters as it goes.
+	 * Unpaired surrogates are encoded as '?', like {@link String#getBytes(java.nio.charset.Charset)} does.
+	 * @param slot				int
+	 * @param word				String
+	 * @return boolean			true if the slot holds the word
+	 */
+	private boolean matches(int slot, String word) {
+		int position = wordStart + buffer.getInt(offsetStart + slot * Integer.BYTES);
+		int end = wordStart + buffer.getInt(offsetStart + (slot + 1) * Integer.BYTES);
+
+		for(int i = 0; i < word.length(); i++) {
+			int c = word.charAt(i);
+
+			if(Character.isSurrogate((char) c)) {
+				if(Character.isHighSurrogate((char) c) && i + 1 < word.length() && Character.isLowSurrogate(word.charAt(i + 1))) {
+					c = Character.toCodePoint((char) c, word.charAt(++i));
+				} else {
+					c = '?';
+				}
+			}
+
+			int length = c < 0x80 ? 1 : c < 0x800 ? 2 : c < 0x10000 ? 3 : 4;
+			if(end - position < length) return false;
+
+			if(length == 1) {
+				if(buffer.get(position) != c) return false;
+			} else {
+				//leading byte marks the length, each following byte holds 6 bits
+				int shift = 6 * (length - 1);
+				int lead = (0xF00 >> length) & 0xFF;
+				if((buffer.get(position) & 0xFF) != (lead | (c >> shift))) return false;
+				for(int k = 1; k < length; k++) {
+					shift -= 6;
+					if((buffer.get(position + k) & 0xFF) != (0x80 | ((c >> shift) & 0x3F))) return false;
+				}
+			}
+			position += length;
+		}
+
+		return position == end;
+	}
+
+}
@@ -0,0 +1,82 @@
+package main.java.kashiish.autotext;
+
+import java.util.ArrayList;
+
+/**
+ * Corrections found for one misspelled token of a batch, see {@link AutoText#correctAll(java.util.List)} 
+ * and {@link AutoText#correctText(CharSequence)}.
+ * @author kashish
+ *
+ */
+public class Correction {
+
+	/* The misspelled token */
+	private String word;
+	/* Position of the token among the tokens of the batch */
+	private int index;
+	/* Offset of the token's first character in the text, -1 if the tokens were not taken from a text */
+	private int start;
+	/* Closest words to the token */
+	private ArrayList<String> corrections;
+
+	/**
+	 * Creates a new Correction.
+	 * @param word				String, the misspelled token
+	 * @param index				int, position of the token among the tokens of the batch
+	 * @param start				int, offset of the token in the text, or -1
+	 * @param corrections		ArrayList<String>
+	 */
+	public Correction(String word, int index, int start, ArrayList<String> corrections) {
+		this.word = word;
+		this.index = index;
+		this.start = start;
+		this.corrections = corrections;
+	}
+
+	/**
+	 * Gets the misspelled token.
+	 * @return String
+	 */
+	public String getWord() {
+		return this.word;
+	}
+
+	/**
+	 * Gets the position of the token among the tokens of the batch, the index in the list of words or 
+	 * the number of words before it in the text.
+	 * @return int
+	 */
+	public int getIndex() {
+		return this.index;
+	}
+
+	/**
+	 * Gets the offset of the token's first character in the text.
+	 * @return int		-1 if the tokens were not taken from a text
+	 */
+	public int getStart() {
+		return this.start;
+	}
+
+	/**
+	 * Gets the offset after the token's last character in the text.
+	 * @return int		-1 if the tokens were not taken from a text
+	 */
+	public int getEnd() {
+		return this.start < 0 ? -1 : this.start + this.word.length();
+	}
+
+	/**
+	 * Gets the closest words to the token, the same words {@link AutoText#autocorrect(String)} returns.
+	 * @return ArrayList<String>
+	 */
+	public ArrayList<String> getCorrections() {
+		return this.corrections;
+	}
+
+	@Override
+	public String toString() {
+		return this.word + " -> " + this.corrections;
+	}
+
+}
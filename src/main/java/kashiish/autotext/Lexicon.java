@@ -3,15 +3,31 @@ package main.java.kashiish.autotext;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 
-public class Lexicon {
+public class Lexicon implements WordSet {
+	
+	/* Separates a word from its count in a weighted lexicon file. */
+	private static final char COUNT_SEPARATOR = '\t';
+	/* Count given to words that are listed without one. */
+	private static final long DEFAULT_FREQUENCY = 1;
 	
 	private HashSet<String> lexicon;;
+	/* Counts of the words that were listed with one. */
+	private HashMap<String, Long> frequencies;
 	
+	/**
+	 * Creates a new Lexicon from a file with one word per line. A line may also hold a
+	 * weighted word, the word followed by a tab and its count (ex. "the\t23135851162").
+	 * @param fileName		String
+	 * @throws IOException
+	 */
 	public Lexicon(String fileName) throws IOException {
 		BufferedReader rd = openFile(fileName);
 		this.lexicon = new HashSet<String>();
+		this.frequencies = new HashMap<String, Long>();
 		readFile(rd);
 	}
 	
@@ -19,23 +35,65 @@ public class Lexicon {
 		return this.lexicon;
 	}
 	
+	@Override
 	public boolean containsWord(String word) {
 		return this.lexicon.contains(word);
 	}
 	
+	@Override
+	public int getNumWords() {
+		return this.lexicon.size();
+	}
+	
+	@Override
+	public ArrayList<String> getWords() {
+		return new ArrayList<String>(this.lexicon);
+	}
+	
+	/**
+	 * Gets the count of a word, or 0 if the word is not in the lexicon. Words that were
+	 * listed without a count have a count of 1.
+	 * @param word		String
+	 * @return long
+	 */
+	public long getFrequency(String word) {
+		Long frequency = this.frequencies.get(word);
+		if(frequency != null) return frequency;
+		return containsWord(word) ? DEFAULT_FREQUENCY : 0;
+	}
+	
+	/**
+	 * Returns whether any word in the lexicon file was listed with a count.
+	 * @return boolean
+	 */
+	public boolean isWeighted() {
+		return !this.frequencies.isEmpty();
+	}
+	
 	/*
 	 * Reads all the lines (words) from the input reader and adds them 
-	 * to `lexicon` HashSet. Closes the reader at the end of the file.
+	 * to `lexicon` HashSet. Counts of weighted words are added to `frequencies`,
+	 * a word listed more than once gets the sum of its counts. Closes the reader
+	 * at the end of the file.
 	 * @param rd 	BufferedReader for the input file
 	 */
 	private void readFile(BufferedReader rd) throws IOException {
 		try {
 			
 			while(true) {
-				String word = rd.readLine();
-				if(word == null) break;
-				lexicon.add(word.toLowerCase());
+				String line = rd.readLine();
+				if(line == null) break;
+				
+				int separator = line.lastIndexOf(COUNT_SEPARATOR);
+				if(separator == -1) {
+					lexicon.add(line.toLowerCase());
+					continue;
+				}
 				
+				String word = line.substring(0, separator).toLowerCase();
+				long count = Long.parseLong(line.substring(separator + 1).trim());
+				lexicon.add(word);
+				frequencies.merge(word, count, Long::sum);
 			}
 			
 			rd.close();
@@ -0,0 +1,116 @@
+package main.java.kashiish.autotext;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * Read-only lexicon stored in a section of a snapshot, see {@link AutoText#writeSnapshot(String)}. The words are kept sorted
+ * in one array of characters and looked up with a binary search directly on the mapped buffer.
+ * @author kashish
+ *
+ */
+public class MappedLexicon implements WordSet {
+
+	/* The number of words */
+	private int numWords;
+	/* Offset of each word in `chars`, plus the end of the last word */
+	private IntBuffer wordStart;
+	/* Characters of all the words, in sorted order */
+	private CharBuffer chars;
+
+	/**
+	 * Creates a new MappedLexicon from a snapshot section written by {@link #write(WordSet, DataOutputStream)}.
+	 * @param section		SnapshotSection
+	 */
+	public MappedLexicon(SnapshotSection section) {
+		this.numWords = section.readInt();
+		this.wordStart = section.readInts(numWords + 1);
+		this.chars = section.readChars(wordStart.get(numWords));
+	}
+
+	/**
+	 * Writes the words of a collection in the format read by {@link #MappedLexicon(SnapshotSection)}.
+	 * @param lexicon		WordSet
+	 * @param out			DataOutputStream
+	 * @throws IOException
+	 */
+	public static void write(WordSet lexicon, DataOutputStream out) throws IOException {
+		ArrayList<String> words = lexicon.getWords();
+		Collections.sort(words);
+
+		out.writeInt(words.size());
+		int offset = 0;
+		for(String word : words) {
+			out.writeInt(offset);
+			offset += word.length();
+		}
+		out.writeInt(offset);
+
+		for(String word : words) {
+			out.writeChars(word);
+		}
+	}
+
+	/**
+	 * Checks if the given word is in the lexicon.
+	 * @param word		String
+	 * @return boolean
+	 */
+	@Override
+	public boolean containsWord(String word) {
+		if(word == null) return false;
+
+		int low = 0;
+		int high = numWords - 1;
+		while(low <= high) {
+			int mid = (low + high) >>> 1;
+			int order = compare(mid, word);
+			if(order < 0) low = mid + 1;
+			else if(order > 0) high = mid - 1;
+			else return true;
+		}
+		return false;
+	}
+
+	@Override
+	public int getNumWords() {
+		return this.numWords;
+	}
+
+	/**
+	 * Gets all the words of the lexicon, in sorted order.
+	 * @return ArrayList<String>
+	 */
+	@Override
+	public ArrayList<String> getWords() {
+		ArrayList<String> words = new ArrayList<String>(numWords);
+		CharBuffer word = chars.duplicate();
+		for(int i = 0; i < numWords; i++) {
+			word.limit(wordStart.get(i + 1)).position(wordStart.get(i));
+			words.add(word.toString());
+		}
+		return words;
+	}
+
+	/*
+	 * Compares the stored word at `index` with `word`, the same way as {@link String#compareTo(String)}.
+	 * @param index		int
+	 * @param word		String
+	 * @return int
+	 */
+	private int compare(int index, String word) {
+		int start = wordStart.get(index);
+		int length = wordStart.get(index + 1) - start;
+		int min = Math.min(length, word.length());
+		for(int i = 0; i < min; i++) {
+			char c = chars.get(start + i);
+			if(c != word.charAt(i)) return c - word.charAt(i);
+		}
+		return length - word.length();
+	}
+
+}
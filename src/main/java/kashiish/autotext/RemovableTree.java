@@ -0,0 +1,17 @@
+package main.java.kashiish.autotext;
+
+/**
+ * Tree that words can also be removed from.
+ * @author kashish
+ *
+ */
+public interface RemovableTree extends Tree {
+	
+	/**
+	 * Removes a word from the Tree.
+	 * @param word			String
+	 * @return boolean		true if the word was in the Tree
+	 */
+	boolean removeWord(String word);
+	
+}
@@ -0,0 +1,202 @@
+package main.java.kashiish.autotext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of query results that can be shared between threads. Keys are spread over
+ * segments, each one a small least recently used map with its own lock, so threads looking up
+ * different keys rarely wait for each other. Results older than the time to live are recomputed.
+ *
+ * Results computed before the cache was invalidated are not stored, see {@link #getGeneration()}.
+ * @author kashish
+ *
+ * @param <K>		key type
+ * @param <V>		result type
+ */
+public class ResultCache<K, V> {
+
+	/* The maximum number of segments the entries are spread over. */
+	private static final int SEGMENTS = 16;
+
+	/* Segments of the cache, a key always belongs to the same segment */
+	private Segment<K, V>[] segments;
+	/* The number of nanoseconds a result is kept, Long.MAX_VALUE if results never expire */
+	private long timeToLive;
+	/* Incremented each time the cache is invalidated */
+	private AtomicLong generation = new AtomicLong();
+	private AtomicLong hits = new AtomicLong();
+	private AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Creates a new cache whose results never expire.
+	 * @param maxEntries		int, the maximum number of results kept
+	 */
+	public ResultCache(int maxEntries) {
+		this(maxEntries, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Creates a new cache.
+	 * @param maxEntries		int, the maximum number of results kept
+	 * @param timeToLive		long, how long a result is kept after it is computed
+	 * @param unit				TimeUnit, unit of `timeToLive`
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public ResultCache(int maxEntries, long timeToLive, TimeUnit unit) {
+		if(maxEntries <= 0)
+			throw new IllegalArgumentException("Cache size must be positive.");
+		if(timeToLive <= 0)
+			throw new IllegalArgumentException("Time to live must be positive.");
+
+		this.timeToLive = unit.toNanos(timeToLive);
+
+		int numSegments = Math.min(SEGMENTS, maxEntries);
+		this.segments = new Segment[numSegments];
+		for(int i = 0; i < numSegments; i++) {
+			//the first segments take the remainder, so the capacities add up to `maxEntries`
+			int capacity = maxEntries / numSegments + (i < maxEntries % numSegments ? 1 : 0);
+			segments[i] = new Segment<K, V>(capacity);
+		}
+	}
+
+	/**
+	 * Gets the result stored for a key.
+	 * @param key			K
+	 * @return V			null if there is no result for the key, or it has expired
+	 */
+	public V get(K key) {
+		Segment<K, V> segment = getSegment(key);
+
+		synchronized(segment) {
+			Entry<V> entry = segment.get(key);
+			if(entry != null && System.nanoTime() - entry.created >= timeToLive) {
+				segment.remove(key);
+				entry = null;
+			}
+
+			if(entry == null) {
+				misses.incrementAndGet();
+				return null;
+			}
+
+			hits.incrementAndGet();
+			return entry.value;
+		}
+	}
+
+	/**
+	 * Stores the result for a key, unless the cache was invalidated since the result started being
+	 * computed. The least recently used result of the key's segment is dropped if it is full.
+	 * @param key			K
+	 * @param value			V
+	 * @param generation	long, {@link #getGeneration()} before the result was computed
+	 */
+	public void put(K key, V value, long generation) {
+		if(value == null)
+			throw new IllegalArgumentException("Result must not be null.");
+
+		Segment<K, V> segment = getSegment(key);
+
+		synchronized(segment) {
+			//checked under the lock, so a result is never stored after `invalidate` cleared its segment
+			if(generation != this.generation.get()) return;
+			segment.put(key, new Entry<V>(value, System.nanoTime()));
+		}
+	}
+
+	/**
+	 * Gets the current generation of the cache. Read it before computing a result to store with
+	 * {@link #put(Object, Object, long)}.
+	 * @return long
+	 */
+	public long getGeneration() {
+		return generation.get();
+	}
+
+	/**
+	 * Removes every result, including the results being computed.
+	 */
+	public void invalidate() {
+		generation.incrementAndGet();
+		for(Segment<K, V> segment : segments) {
+			synchronized(segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of results stored, including expired results that have not been removed yet.
+	 * @return int
+	 */
+	public int size() {
+		int size = 0;
+		for(Segment<K, V> segment : segments) {
+			synchronized(segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the number of lookups that found a result.
+	 * @return long
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of lookups that did not find a result.
+	 * @return long
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/*
+	 * Gets the segment of a key.
+	 * @param key			K
+	 * @return Segment<K, V>
+	 */
+	private Segment<K, V> getSegment(K key) {
+		int hash = key.hashCode();
+		hash ^= hash >>> 16;
+		return segments[(hash & Integer.MAX_VALUE) % segments.length];
+	}
+
+	/* Segment class is a map of results that drops the least recently used one when it is full. */
+	private static class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private int capacity;
+
+		public Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+			return size() > capacity;
+		}
+
+	}
+
+	/* Entry class contains a result and the time it was stored. */
+	private static class Entry<V> {
+		V value;
+		long created;
+
+		public Entry(V value, long created) {
+			this.value = value;
+			this.created = created;
+		}
+	}
+
+}
@@ -0,0 +1,95 @@
+package main.java.kashiish.autotext;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Reads the arrays of one section of a snapshot, see {@link AutoText#writeSnapshot(String)}. Arrays are returned as views
+ * of the underlying (memory-mapped) buffer, nothing is copied.
+ * @author kashish
+ *
+ */
+public class SnapshotSection {
+
+	/* Buffer holding the section */
+	private ByteBuffer buffer;
+	/* Offset of the next value to read */
+	private int position = 0;
+
+	/**
+	 * Creates a new SnapshotSection object.
+	 * @param buffer		ByteBuffer, starting at the first byte of the section
+	 */
+	public SnapshotSection(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Reads one int.
+	 * @return int
+	 */
+	public int readInt() {
+		int value = buffer.getInt(position);
+		position += Integer.BYTES;
+		return value;
+	}
+
+	/**
+	 * Reads an array of ints.
+	 * @param length		int, number of ints
+	 * @return IntBuffer
+	 */
+	public IntBuffer readInts(int length) {
+		IntBuffer ints = slice(length * Integer.BYTES).asIntBuffer();
+		position += length * Integer.BYTES;
+		return ints;
+	}
+
+	/**
+	 * Reads an array of longs.
+	 * @param length		int, number of longs
+	 * @return LongBuffer
+	 */
+	public LongBuffer readLongs(int length) {
+		LongBuffer longs = slice(length * Long.BYTES).asLongBuffer();
+		position += length * Long.BYTES;
+		return longs;
+	}
+
+	/**
+	 * Reads an array of chars.
+	 * @param length		int, number of chars
+	 * @return CharBuffer
+	 */
+	public CharBuffer readChars(int length) {
+		CharBuffer chars = slice(length * Character.BYTES).asCharBuffer();
+		position += length * Character.BYTES;
+		return chars;
+	}
+
+	/**
+	 * Reads an array of bytes.
+	 * @param length		int, number of bytes
+	 * @return ByteBuffer
+	 */
+	public ByteBuffer readBytes(int length) {
+		ByteBuffer bytes = slice(length);
+		position += length;
+		return bytes;
+	}
+
+	/*
+	 * Gets a view of the next `length` bytes of the section.
+	 * @param length		int
+	 * @return ByteBuffer
+	 */
+	private ByteBuffer slice(int length) {
+		ByteBuffer view = buffer.duplicate();
+		view.position(position);
+		view.limit(position + length);
+		return view.slice();
+	}
+
+}
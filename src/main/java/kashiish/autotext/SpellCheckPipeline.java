@@ -0,0 +1,519 @@
+package main.java.kashiish.autotext;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Spell-checks large text files with an {@link AutoText}, writing the corrections of the misspelled words
+ * in the order they appear. Files are read in memory-mapped chunks that end at word boundaries, so a
+ * file can be larger than the heap, and the chunks go through three stages connected by bounded queues:
+ * <ol>
+ * <li>validator threads split a chunk into words and check them against the lexicon. Each validator
+ * remembers the words it has seen by their bytes, so a word that was seen before is checked without
+ * making a String for it.</li>
+ * <li>corrector threads search for the corrections of the misspelled words of a chunk, each distinct
+ * word once, and format the output lines.</li>
+ * <li>the calling thread writes the lines of the chunks in order.</li>
+ * </ol>
+ * At most a fixed number of chunks are in the pipeline at once, so memory use does not grow with the
+ * size of the input.
+ *
+ * Files are read as UTF-8. A word is a run of letters, which may have apostrophes between them, like
+ * {@link AutoText#correctText(CharSequence)}, with letters decided by {@link Character#isLetter(int)}. Each
+ * correction is written on its own line: the file name, the byte offset of the word in the file, the
+ * word and its corrections, separated by tabs (ex. "notes.txt\t1042\trecieve\treceive").
+ * @author kashish
+ *
+ */
+public class SpellCheckPipeline {
+
+	/* The default number of bytes of a chunk. */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 22;
+	/* Separates the fields of an output line. */
+	private static final char SEPARATOR = '\t';
+	/* Marks the end of the input in the queues. */
+	private static final Chunk END = new Chunk(-1, null, 0, null);
+	/* Wakes up the writer when a stage fails. */
+	private static final Chunk FAILED = new Chunk(-2, null, 0, null);
+
+	/* AutoText that validates and corrects the words */
+	private AutoText autotext;
+	/* Number of bytes mapped for a chunk */
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	/* Number of threads searching for corrections */
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Creates a new SpellCheckPipeline that checks words with an AutoText.
+	 * @param autotext		AutoText
+	 */
+	public SpellCheckPipeline(AutoText autotext) {
+		this.autotext = autotext;
+	}
+
+	/**
+	 * Sets the number of bytes of a chunk. A chunk ends at the last word boundary within that many bytes,
+	 * unless a single word is longer than a chunk.
+	 * @param chunkSize		int
+	 */
+	public void setChunkSize(int chunkSize) {
+		if(chunkSize <= 0)
+			throw new IllegalArgumentException("Chunk size must be positive.");
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Sets the number of threads that search for corrections, defaults to the number of processors.
+	 * A validator thread is added for every four of them.
+	 * @param threads		int
+	 */
+	public void setThreads(int threads) {
+		if(threads <= 0)
+			throw new IllegalArgumentException("Number of threads must be positive.");
+		this.threads = threads;
+	}
+
+	/**
+	 * Spell-checks files and writes the corrections of their misspelled words to an output stream, in
+	 * the order of the files and of the words in each file. Misspelled words without corrections are
+	 * left out. The output stream is flushed but not closed.
+	 * @param out				OutputStream
+	 * @param fileNames			String...
+	 * @return long				the number of corrections written
+	 * @throws IOException
+	 */
+	public long check(OutputStream out, String... fileNames) throws IOException {
+		final int validators = (threads + 3) / 4;
+		final int correctors = threads;
+		//every chunk that was mapped and not yet written holds a permit
+		final Semaphore inFlight = new Semaphore(2 * (validators + correctors));
+		int capacity = 2 * (validators + correctors) + validators + correctors + 1;
+
+		final BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<Chunk>(capacity);
+		final BlockingQueue<Chunk> batches = new ArrayBlockingQueue<Chunk>(capacity);
+		final BlockingQueue<Chunk> results = new ArrayBlockingQueue<Chunk>(capacity);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final AtomicInteger runningValidators = new AtomicInteger(validators);
+
+		ExecutorService pool = Executors.newFixedThreadPool(1 + validators + correctors, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "spell-check");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		pool.execute(new Stage(failure, results) {
+			@Override
+			protected void runStage() throws Exception {
+				long count = 0;
+				for(String fileName : fileNames) {
+					count = readFile(fileName, count, chunks, inFlight);
+				}
+				for(int i = 0; i < validators; i++) {
+					chunks.put(END);
+				}
+				//tells the writer how many chunks there are
+				results.put(new Chunk(-1, null, count, null));
+			}
+		});
+
+		for(int i = 0; i < validators; i++) {
+			pool.execute(new Stage(failure, results) {
+				private TokenTable table = new TokenTable();
+
+				@Override
+				protected void runStage() throws Exception {
+					while(true) {
+						Chunk chunk = chunks.take();
+						if(chunk == END) break;
+						batches.put(validate(chunk, table));
+					}
+					if(runningValidators.decrementAndGet() == 0) {
+						for(int i = 0; i < correctors; i++) {
+							batches.put(END);
+						}
+					}
+				}
+			});
+		}
+
+		for(int i = 0; i < correctors; i++) {
+			pool.execute(new Stage(failure, results) {
+				@Override
+				protected void runStage() throws Exception {
+					while(true) {
+						Chunk batch = batches.take();
+						if(batch == END) break;
+						results.put(correct(batch));
+					}
+				}
+			});
+		}
+
+		try {
+			return write(out, results, inFlight, failure);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/*
+	 * Maps a file in chunks that end at word boundaries and puts them in the queue, numbering them
+	 * after the chunks of the previous files.
+	 * @param fileName			String
+	 * @param count				long, the number of chunks before this file
+	 * @param chunks			BlockingQueue<Chunk>
+	 * @param inFlight			Semaphore, taken for each chunk
+	 * @return long				the number of chunks including this file
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	private long readFile(String fileName, long count, BlockingQueue<Chunk> chunks, Semaphore inFlight)
+			throws IOException, InterruptedException {
+		try(RandomAccessFile file = new RandomAccessFile(fileName, "r"); FileChannel channel = file.getChannel()) {
+			long size = channel.size();
+			long start = 0;
+
+			while(start < size) {
+				inFlight.acquire();
+				//the mapping stays valid after the channel is closed
+				ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(chunkSize, size - start));
+
+				int end = buffer.limit();
+				if(start + end < size) {
+					//end the chunk after the last character that is not part of a word
+					int boundary = end;
+					while(boundary > 0) {
+						int lead = boundary - 1;
+						while(lead > 0 && boundary - lead < 4 && isContinuation(buffer.get(lead))) {
+							lead--;
+						}
+						//a character cut off by the end of the mapping is kept for the next chunk
+						int codePoint = codePointAt(buffer, lead, boundary);
+						if(codePoint >= 0 && !isLetter(codePoint) && codePoint != '\'') break;
+						boundary = lead;
+					}
+					if(boundary > 0) end = boundary;
+				}
+				buffer.limit(end);
+
+				chunks.put(new Chunk(count++, fileName, start, buffer));
+				start += end;
+			}
+		}
+		return count;
+	}
+
+	/*
+	 * Splits a chunk into words and finds the misspelled ones.
+	 * @param chunk				Chunk
+	 * @param table				TokenTable, words the validator has seen
+	 * @return Chunk			the chunk with its misspelled words and their offsets in the chunk
+	 */
+	private Chunk validate(Chunk chunk, TokenTable table) {
+		ByteBuffer buffer = chunk.buffer;
+		ArrayList<String> words = new ArrayList<String>();
+		int[] offsets = new int[16];
+
+		int limit = buffer.limit();
+		int i = 0;
+		while(i < limit) {
+			if(!isLetter(codePointAt(buffer, i, limit))) {
+				i++;
+				continue;
+			}
+
+			int start = i;
+			int hash = 0;
+			while(i < limit) {
+				int codePoint = codePointAt(buffer, i, limit);
+				int length = 1;
+				if(isLetter(codePoint)) length = getLength(buffer.get(i));
+				else if(!(codePoint == '\'' && i + 1 < limit && isLetter(codePointAt(buffer, i + 1, limit)))) break;
+
+				for(int end = i + length; i < end; i++) {
+					hash = 31 * hash + buffer.get(i);
+				}
+			}
+
+			String misspelled = table.getMisspelled(buffer, start, i, hash, autotext);
+			if(misspelled == null) continue;
+
+			if(words.size() == offsets.length) offsets = Arrays.copyOf(offsets, 2 * offsets.length);
+			offsets[words.size()] = start;
+			words.add(misspelled);
+		}
+
+		chunk.buffer = null;
+		chunk.words = words;
+		chunk.offsets = offsets;
+		return chunk;
+	}
+
+	/*
+	 * Finds the corrections of the misspelled words of a chunk, each distinct word once, and formats
+	 * the output lines.
+	 * @param chunk				Chunk
+	 * @return Chunk			the chunk with its output lines
+	 */
+	private Chunk correct(Chunk chunk) {
+		HashMap<String, String> corrections = new HashMap<String, String>();
+		StringBuilder lines = new StringBuilder();
+
+		for(int i = 0; i < chunk.words.size(); i++) {
+			String word = chunk.words.get(i);
+			String correction = corrections.get(word);
+			if(correction == null) {
+				correction = String.join(",", autotext.getClosestWords(word));
+				corrections.put(word, correction);
+			}
+			if(correction.length() == 0) continue;
+
+			lines.append(chunk.fileName).append(SEPARATOR).append(chunk.start + chunk.offsets[i]).append(SEPARATOR)
+				 .append(word).append(SEPARATOR).append(correction).append('\n');
+			chunk.count++;
+		}
+
+		chunk.words = null;
+		chunk.offsets = null;
+		chunk.lines = lines.toString();
+		return chunk;
+	}
+
+	/*
+	 * Writes the lines of the chunks in order, holding back the chunks that are done before the ones
+	 * ahead of them.
+	 * @param out				OutputStream
+	 * @param results			BlockingQueue<Chunk>
+	 * @param inFlight			Semaphore, released for each chunk written
+	 * @param failure			AtomicReference<Throwable>, set by a stage that failed
+	 * @return long				the number of corrections written
+	 * @throws IOException
+	 */
+	private long write(OutputStream out, BlockingQueue<Chunk> results, Semaphore inFlight,
+					   AtomicReference<Throwable> failure) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		HashMap<Long, Chunk> waiting = new HashMap<Long, Chunk>();
+		long total = -1;
+		long next = 0;
+		long written = 0;
+
+		try {
+			while(total < 0 || next < total) {
+				Chunk chunk = results.poll(100, TimeUnit.MILLISECONDS);
+				rethrow(failure.get());
+				if(chunk == null) continue;
+
+				if(chunk.seq == -1) {
+					//the reader is done, the marker holds the number of chunks
+					total = chunk.start;
+					continue;
+				}
+
+				waiting.put(chunk.seq, chunk);
+				while((chunk = waiting.remove(next)) != null) {
+					writer.write(chunk.lines);
+					written += chunk.count;
+					next++;
+					inFlight.release();
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while spell-checking.", ex);
+		}
+
+		writer.flush();
+		return written;
+	}
+
+	/*
+	 * Rethrows the failure of a stage, if a stage failed.
+	 * @param failure			Throwable, null if no stage failed
+	 * @throws IOException
+	 */
+	private static void rethrow(Throwable failure) throws IOException {
+		if(failure == null) return;
+		if(failure instanceof IOException) throw new IOException(failure.getMessage(), failure);
+		if(failure instanceof Error) throw (Error) failure;
+		throw new IllegalStateException(failure);
+	}
+
+	/*
+	 * Checks if a code point is a letter, the same way {@link AutoText#correctText(CharSequence)} does.
+	 * @param codePoint			int, -1 for bytes that are not a character
+	 * @return boolean
+	 */
+	private static boolean isLetter(int codePoint) {
+		return codePoint >= 0 && Character.isLetter(codePoint);
+	}
+
+	/*
+	 * Decodes the UTF-8 character that starts at byte `i` of the buffer.
+	 * @param buffer			ByteBuffer
+	 * @param i					int, position of the first byte of the character
+	 * @param limit				int, position after the last byte that can be read
+	 * @return int				the code point, or -1 if the bytes are not a whole UTF-8 character
+	 */
+	private static int codePointAt(ByteBuffer buffer, int i, int limit) {
+		byte b = buffer.get(i);
+		if(b >= 0) return b;
+
+		int length = getLength(b);
+		if(length == 1 || i + length > limit) return -1;
+
+		int codePoint = b & (0xFF >>> (length + 1));
+		for(int j = i + 1; j < i + length; j++) {
+			byte next = buffer.get(j);
+			if(!isContinuation(next)) return -1;
+			codePoint = codePoint << 6 | next & 0x3F;
+		}
+		return codePoint;
+	}
+
+	/*
+	 * Gets the number of bytes of a UTF-8 character from its first byte.
+	 * @param b					byte
+	 * @return int				1 for ASCII and for bytes that can not start a character
+	 */
+	private static int getLength(byte b) {
+		if((b & 0xE0) == 0xC0) return 2;
+		if((b & 0xF0) == 0xE0) return 3;
+		if((b & 0xF8) == 0xF0) return 4;
+		return 1;
+	}
+
+	/*
+	 * Checks if a byte continues a UTF-8 character.
+	 * @param b					byte
+	 * @return boolean
+	 */
+	private static boolean isContinuation(byte b) {
+		return (b & 0xC0) == 0x80;
+	}
+
+	/* Chunk class is a part of a file as it goes through the stages of the pipeline. */
+	private static class Chunk {
+		/* Position of the chunk among the chunks of all the files */
+		private long seq;
+		private String fileName;
+		/* Offset of the chunk in its file */
+		private long start;
+		private ByteBuffer buffer;
+		/* Misspelled words of the chunk and their offsets in the chunk, set by a validator */
+		private ArrayList<String> words;
+		private int[] offsets;
+		/* Output lines of the chunk and the number of them, set by a corrector */
+		private String lines;
+		private long count;
+
+		public Chunk(long seq, String fileName, long start, ByteBuffer buffer) {
+			this.seq = seq;
+			this.fileName = fileName;
+			this.start = start;
+			this.buffer = buffer;
+		}
+	}
+
+	/* Stage class runs one thread of the pipeline, recording its failure so the writer stops. */
+	private static abstract class Stage implements Runnable {
+		private AtomicReference<Throwable> failure;
+		private BlockingQueue<Chunk> results;
+
+		public Stage(AtomicReference<Throwable> failure, BlockingQueue<Chunk> results) {
+			this.failure = failure;
+			this.results = results;
+		}
+
+		@Override
+		public void run() {
+			try {
+				runStage();
+			} catch (InterruptedException ex) {
+				//the pipeline was shut down
+			} catch (Throwable ex) {
+				failure.compareAndSet(null, ex);
+				results.offer(FAILED);
+			}
+		}
+
+		protected abstract void runStage() throws Exception;
+	}
+
+	/*
+	 * TokenTable class remembers words by their UTF-8 bytes: whether they are in the lexicon, and the
+	 * String of the ones that are not. Open addressing, cleared when it is full.
+	 */
+	private static class TokenTable {
+		private static final int CAPACITY = 1 << 16;
+		private static final int MAX_SIZE = CAPACITY / 2;
+
+		private byte[][] keys = new byte[CAPACITY][];
+		private int[] hashes = new int[CAPACITY];
+		/* The word of each misspelled key, null for valid words */
+		private String[] misspelled = new String[CAPACITY];
+		private int size = 0;
+
+		/*
+		 * Gets the word made of bytes `start` to `end` of the buffer if it is misspelled.
+		 * @return String		null if the word is in the lexicon
+		 */
+		public String getMisspelled(ByteBuffer buffer, int start, int end, int hash, AutoText autotext) {
+			int mask = CAPACITY - 1;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while(keys[slot] != null) {
+				if(hashes[slot] == hash && equals(keys[slot], buffer, start, end)) return misspelled[slot];
+				slot = (slot + 1) & mask;
+			}
+
+			byte[] key = new byte[end - start];
+			for(int i = 0; i < key.length; i++) {
+				key[i] = buffer.get(start + i);
+			}
+			String word = new String(key, StandardCharsets.UTF_8);
+			String result = autotext.isValidWord(word) ? null : word;
+
+			if(size == MAX_SIZE) {
+				Arrays.fill(keys, null);
+				Arrays.fill(misspelled, null);
+				size = 0;
+				slot = (hash ^ (hash >>> 16)) & mask;
+			}
+			keys[slot] = key;
+			hashes[slot] = hash;
+			misspelled[slot] = result;
+			size++;
+			return result;
+		}
+
+		private static boolean equals(byte[] key, ByteBuffer buffer, int start, int end) {
+			if(key.length != end - start) return false;
+			for(int i = 0; i < key.length; i++) {
+				if(key[i] != buffer.get(start + i)) return false;
+			}
+			return true;
+		}
+	}
+
+}
@@ -6,7 +6,7 @@ import java.util.HashSet;
 public interface Tree {
 	
 	void insertWord(String word);
-
+	
 	void setMaxMatches(int matches);
 	
 	/**
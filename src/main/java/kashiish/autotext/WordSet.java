@@ -0,0 +1,31 @@
+package main.java.kashiish.autotext;
+
+import java.util.ArrayList;
+
+/**
+ * Interface for collections of words that can validate a word.
+ * @author kashish
+ *
+ */
+public interface WordSet {
+	
+	/**
+	 * Checks if the given word is in the collection.
+	 * @param word		String
+	 * @return boolean
+	 */
+	boolean containsWord(String word);
+	
+	/**
+	 * Returns the number of words in the collection.
+	 * @return int
+	 */
+	int getNumWords();
+	
+	/**
+	 * Gets all the words of the collection.
+	 * @return ArrayList<String>
+	 */
+	ArrayList<String> getWords();
+	
+}
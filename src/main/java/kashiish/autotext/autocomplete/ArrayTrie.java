@@ -0,0 +1,248 @@
+package main.java.kashiish.autotext.autocomplete;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.Tree;
+
+/**
+ * Compact Trie data structure. Instead of TrieNode objects with their own HashMap of children,
+ * the whole trie is stored in a few primitive arrays indexed by node number. Every node keeps
+ * its character, its first child and its next sibling (a sorted child-edge list), so a node costs
+ * 11 bytes and no boxing is needed to walk from one node to the next.
+ * @author kashish
+ *
+ */
+public class ArrayTrie implements Tree {
+
+	/* Node number of the root. */
+	private static final int ROOT = 0;
+	/* Marks a missing child or sibling. */
+	private static final int NONE = -1;
+	/* Initial capacity of the node arrays. */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/* The maximum number of matches to get while traversing the tree. */
+	private int maxMatches = 10;
+	/* The number of words in the trie. */
+	private int numWords = 0;
+	/* The number of nodes in the trie (including the root). */
+	private int numNodes = 0;
+
+	/* Character on the edge leading into each node. */
+	private char[] labels;
+	/* First child of each node, children are kept in ascending character order. */
+	private int[] firstChild;
+	/* Next sibling of each node. */
+	private int[] nextSibling;
+	/* Whether each node ends a word. */
+	private boolean[] leaf;
+
+	/**
+	 * Creates a new ArrayTrie object.
+	 * @param lexicon 		Lexicon, words to add to the ArrayTrie
+	 * @throws IOException
+	 */
+	public ArrayTrie(Lexicon lexicon) throws IOException {
+		initialize();
+		createTree(lexicon);
+	}
+
+	/**
+	 * Creates a new ArrayTrie object with specified file of words to add to the tree.
+	 * @param fileName 		String
+	 * @throws IOException
+	 */
+	public ArrayTrie(String fileName) throws IOException {
+		initialize();
+		createTree(new Lexicon(fileName));
+	}
+
+	/**
+	 * Inserts a new word into the ArrayTrie.
+	 * @param word		String, the word to be inserted
+	 */
+	@Override
+	public void insertWord(String word) {
+
+		if(word == null || word.length() == 0)
+			throw new IllegalArgumentException("String is not valid.");
+
+		word = word.toLowerCase();
+
+		int current = ROOT;
+		int length = word.length();
+
+		for(int i = 0; i < length; i++) {
+			current = getOrAddChild(current, word.charAt(i));
+		}
+
+		if(!leaf[current]) {
+			leaf[current] = true;
+			this.numWords++;
+		}
+	}
+
+	@Override
+	public int getNumWords() {
+		return this.numWords;
+	}
+
+	/**
+	 * Returns the number of nodes in the ArrayTrie, including the root.
+	 * @return int
+	 */
+	public int getNumNodes() {
+		return this.numNodes;
+	}
+
+	/**
+	 * Sets the number of suggestions to return.
+	 * @param matches		int
+	 */
+	@Override
+	public void setMaxMatches(int matches) {
+		this.maxMatches = matches;
+	}
+
+	/**
+	 * Shrinks the node arrays to the number of nodes in the ArrayTrie. Useful once all
+	 * the words have been inserted.
+	 */
+	public void trimToSize() {
+		resize(this.numNodes);
+	}
+
+	/**
+	 * Gets words with given prefix (including `prefix`, if it is a valid word). Words are
+	 * returned in alphabetical order.
+	 * @param prefix				String
+	 * @return ArrayList<String>	A list of all words with prefix
+	 */
+	public ArrayList<String> getWordsWithPrefix(String prefix) {
+		ArrayList<String> wordsWithPrefix = new ArrayList<String>();
+
+		if(prefix == null || prefix.length() == 0) return wordsWithPrefix;
+
+		prefix = prefix.toLowerCase();
+
+		int length = prefix.length();
+		int current = ROOT;
+
+		//get to the last character of the prefix
+		for(int i = 0; i < length; i++) {
+			current = getChild(current, prefix.charAt(i));
+			if(current == NONE) return wordsWithPrefix;
+		}
+
+		char[] word = Arrays.copyOf(prefix.toCharArray(), length + 16);
+		getWordsWithPrefix(current, word, length, wordsWithPrefix);
+
+		return wordsWithPrefix;
+	}
+
+	/*
+	 * Traverses the subtree of `node` depth first and adds the words it contains into the result
+	 * list. `word` holds the characters on the path to `node` and is reused for the whole traversal,
+	 * so a String is only created for words that are added to the list.
+	 * @param node			int, current node
+	 * @param word			char[], characters of the current path
+	 * @param depth			int, number of characters in `word` that belong to the current path
+	 * @param result		ArrayList<String>, list that will contain all words with given prefix
+	 */
+	private void getWordsWithPrefix(int node, char[] word, int depth, ArrayList<String> result) {
+		if(result.size() == maxMatches) return;
+
+		if(leaf[node]) result.add(new String(word, 0, depth));
+
+		if(depth == word.length) word = Arrays.copyOf(word, depth * 2);
+
+		for(int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+			word[depth] = labels[child];
+			getWordsWithPrefix(child, word, depth + 1, result);
+		}
+	}
+
+	/*
+	 * Gets the child of `node` on the edge labeled `c`.
+	 * @param node			int
+	 * @param c				char
+	 * @return int			child node or NONE if there is no such edge
+	 */
+	private int getChild(int node, char c) {
+		for(int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+			if(labels[child] == c) return child;
+			//children are sorted, so the edge cannot come later
+			if(labels[child] > c) return NONE;
+		}
+		return NONE;
+	}
+
+	/*
+	 * Gets the child of `node` on the edge labeled `c`, creating it in its sorted position
+	 * if it does not exist yet.
+	 * @param node			int
+	 * @param c				char
+	 * @return int			child node
+	 */
+	private int getOrAddChild(int node, char c) {
+		int previous = NONE;
+		int child = firstChild[node];
+
+		while(child != NONE && labels[child] < c) {
+			previous = child;
+			child = nextSibling[child];
+		}
+
+		if(child != NONE && labels[child] == c) return child;
+
+		int added = newNode(c);
+		nextSibling[added] = child;
+
+		if(previous == NONE) firstChild[node] = added;
+		else nextSibling[previous] = added;
+
+		return added;
+	}
+
+	/*
+	 * Allocates a new node with the given character, growing the arrays if needed.
+	 * @param c				char
+	 * @return int			number of the new node
+	 */
+	private int newNode(char c) {
+		if(this.numNodes == labels.length) resize(labels.length * 2);
+
+		int node = this.numNodes++;
+		labels[node] = c;
+		firstChild[node] = NONE;
+		nextSibling[node] = NONE;
+		leaf[node] = false;
+		return node;
+	}
+
+	/*
+	 * Creates the node arrays and the root node.
+	 */
+	private void initialize() {
+		this.labels = new char[INITIAL_CAPACITY];
+		this.firstChild = new int[INITIAL_CAPACITY];
+		this.nextSibling = new int[INITIAL_CAPACITY];
+		this.leaf = new boolean[INITIAL_CAPACITY];
+		newNode('\0');
+	}
+
+	/*
+	 * Copies the node arrays into arrays of the given capacity.
+	 * @param capacity		int
+	 */
+	private void resize(int capacity) {
+		this.labels = Arrays.copyOf(labels, capacity);
+		this.firstChild = Arrays.copyOf(firstChild, capacity);
+		this.nextSibling = Arrays.copyOf(nextSibling, capacity);
+		this.leaf = Arrays.copyOf(leaf, capacity);
+	}
+
+}
@@ -0,0 +1,337 @@
+package main.java.kashiish.autotext.autocomplete;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.WordSet;
+
+/**
+ * Directed acyclic word graph (minimal acyclic automaton). Words sharing a suffix share the states
+ * of that suffix, the same way words sharing a prefix share Trie nodes, so a large lexicon needs far
+ * fewer states than a Trie. The DAWG is built once, from words in sorted order: after each word, the
+ * states of the previous word that no longer change are replaced by equivalent states that are
+ * already in the graph, and the states of the last word are minimized once all words are in. Words
+ * can not be added to a DAWG that is built, a new DAWG has to be built from all the words instead.
+ *
+ * Words are numbered by their position in sorted order ({@link #getIndex(String)} and
+ * {@link #getWord(int)}), which is a minimal perfect hash of the lexicon.
+ * @author kashish
+ *
+ */
+public class DAWG implements WordSet {
+
+	/* The maximum number of matches to get while traversing the graph. */
+	private int maxMatches = 10;
+	/* Start state of the graph. */
+	private DAWGNode root;
+	/* The number of words in the graph. */
+	private int numWords = 0;
+	/* The number of states in the graph. */
+	private int numStates = 1;
+
+	/**
+	 * Creates a new DAWG object.
+	 * @param lexicon 		Lexicon, words to add to the DAWG
+	 * @throws IOException
+	 */
+	public DAWG(Lexicon lexicon) throws IOException {
+		insertWords(new ArrayList<String>(lexicon.getLexicon()));
+	}
+
+	/**
+	 * Creates a new DAWG object with specified file of words to add to the graph.
+	 * @param fileName 		String
+	 * @throws IOException
+	 */
+	public DAWG(String fileName) throws IOException {
+		this(new Lexicon(fileName));
+	}
+
+	/**
+	 * Creates a new DAWG object from a list of words.
+	 * @param words 		List<String>, words to add to the DAWG, in any order
+	 */
+	public DAWG(List<String> words) {
+		insertWords(new ArrayList<String>(words));
+	}
+
+	/*
+	 * Inserts a new word into the DAWG. Words are inserted in sorted order, so the word comes after
+	 * every word already in the DAWG. Inserting the last word again does nothing.
+	 * @param word				String, the word to be inserted, in lower case
+	 * @param previousWord		String, the last inserted word
+	 * @param path				ArrayList<DAWGNode>, states on the path of the last inserted word, starting with the root
+	 * @param register			HashMap<DAWGNode, DAWGNode>, minimized states
+	 */
+	private void insertWord(String word, String previousWord, ArrayList<DAWGNode> path, HashMap<DAWGNode, DAWGNode> register) {
+
+		if(word == null || word.length() == 0)
+			throw new IllegalArgumentException("String is not valid.");
+
+		if(word.equals(previousWord)) return;
+
+		int commonPrefix = 0;
+		int maxPrefix = Math.min(word.length(), previousWord.length());
+		while(commonPrefix < maxPrefix && word.charAt(commonPrefix) == previousWord.charAt(commonPrefix)) {
+			commonPrefix++;
+		}
+
+		minimize(commonPrefix, path, register);
+
+		//every state on the common prefix accepts one more word
+		for(int i = 0; i <= commonPrefix; i++) {
+			path.get(i).setNumWords(-1);
+		}
+
+		DAWGNode current = path.get(commonPrefix);
+		int length = word.length();
+		for(int i = commonPrefix; i < length; i++) {
+			DAWGNode next = new DAWGNode();
+			current.addEdge(word.charAt(i), next);
+			path.add(next);
+			current = next;
+		}
+
+		current.setFinal(true);
+		this.numWords++;
+	}
+
+	@Override
+	public int getNumWords() {
+		return this.numWords;
+	}
+
+	/**
+	 * Gets all the words of the DAWG, in sorted order.
+	 * @return ArrayList<String>
+	 */
+	@Override
+	public ArrayList<String> getWords() {
+		ArrayList<String> words = new ArrayList<String>(numWords);
+		getWordsWithPrefix(root, new char[16], 0, words, Integer.MAX_VALUE);
+		return words;
+	}
+
+	/**
+	 * Sets the number of suggestions to return.
+	 * @param matches		int
+	 */
+	public void setMaxMatches(int matches) {
+		this.maxMatches = matches;
+	}
+
+	/**
+	 * Checks if the given word is in the DAWG.
+	 * @param word		String
+	 * @return boolean
+	 */
+	@Override
+	public boolean containsWord(String word) {
+		DAWGNode node = getNode(word);
+		return node != null && node.isFinal();
+	}
+
+	/**
+	 * Gets words with given prefix (including `prefix`, if it is a valid word). Words are
+	 * returned in alphabetical order.
+	 * @param prefix				String
+	 * @return ArrayList<String>	A list of all words with prefix
+	 */
+	public ArrayList<String> getWordsWithPrefix(String prefix) {
+		ArrayList<String> wordsWithPrefix = new ArrayList<String>();
+
+		if(prefix == null || prefix.length() == 0) return wordsWithPrefix;
+
+		prefix = prefix.toLowerCase();
+
+		DAWGNode current = getNode(prefix);
+		if(current == null) return wordsWithPrefix;
+
+		int length = prefix.length();
+		char[] word = Arrays.copyOf(prefix.toCharArray(), length + 16);
+		getWordsWithPrefix(current, word, length, wordsWithPrefix, maxMatches);
+
+		return wordsWithPrefix;
+	}
+
+	/**
+	 * Gets the position of the word among the words of the DAWG in sorted order.
+	 * @param word		String
+	 * @return int		from 0 to {@link #getNumWords()} - 1, or -1 if the word is not in the DAWG
+	 */
+	public int getIndex(String word) {
+		DAWGNode current = root;
+		int index = 0;
+		int length = word.length();
+
+		for(int i = 0; i < length; i++) {
+			char c = word.charAt(i);
+			if(current.isFinal()) index++;
+
+			char[] labels = current.getLabels();
+			DAWGNode[] targets = current.getTargets();
+			int edge = 0;
+			//skip the words behind the edges that come before `c`
+			while(edge < labels.length && labels[edge] < c) {
+				index += countWords(targets[edge]);
+				edge++;
+			}
+
+			if(edge == labels.length || labels[edge] != c) return -1;
+			current = targets[edge];
+		}
+
+		return current.isFinal() ? index : -1;
+	}
+
+	/**
+	 * Gets the word at the given position among the words of the DAWG in sorted order.
+	 * @param index		int, from 0 to {@link #getNumWords()} - 1
+	 * @return String
+	 */
+	public String getWord(int index) {
+		if(index < 0 || index >= numWords)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Number of words: " + numWords);
+
+		StringBuilder word = new StringBuilder();
+		DAWGNode current = root;
+
+		while(true) {
+			if(current.isFinal()) {
+				if(index == 0) return word.toString();
+				index--;
+			}
+
+			char[] labels = current.getLabels();
+			DAWGNode[] targets = current.getTargets();
+			for(int edge = 0; edge < labels.length; edge++) {
+				int count = countWords(targets[edge]);
+				if(index < count) {
+					word.append(labels[edge]);
+					current = targets[edge];
+					break;
+				}
+				index -= count;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of states in the DAWG.
+	 * @return int
+	 */
+	public int getNumStates() {
+		return this.numStates;
+	}
+
+	/*
+	 * Sorts the words and inserts them into the DAWG.
+	 * @param words			ArrayList<String>
+	 */
+	private void insertWords(ArrayList<String> words) {
+		for(int i = 0; i < words.size(); i++) {
+			words.set(i, words.get(i).toLowerCase());
+		}
+		Collections.sort(words);
+
+		this.root = new DAWGNode();
+		//the register and the path are only needed while the DAWG is built
+		HashMap<DAWGNode, DAWGNode> register = new HashMap<DAWGNode, DAWGNode>();
+		ArrayList<DAWGNode> path = new ArrayList<DAWGNode>();
+		path.add(root);
+
+		String previousWord = "";
+		for(String word : words) {
+			insertWord(word, previousWord, path, register);
+			previousWord = word;
+		}
+		minimize(0, path, register);
+
+		//every state but the start state is in the register
+		this.numStates = register.size() + 1;
+	}
+
+	/*
+	 * Traverses the graph depth first from `node` and adds the words it accepts into the result
+	 * list. `word` holds the characters on the path to `node` and is reused for the whole traversal.
+	 * @param node			DAWGNode, current state
+	 * @param word			char[], characters of the current path
+	 * @param depth			int, number of characters in `word` that belong to the current path
+	 * @param result		ArrayList<String>, list that will contain all words with given prefix
+	 * @param maxWords		int, the maximum number of words to add
+	 */
+	private void getWordsWithPrefix(DAWGNode node, char[] word, int depth, ArrayList<String> result, int maxWords) {
+		if(result.size() == maxWords) return;
+
+		if(node.isFinal()) result.add(new String(word, 0, depth));
+
+		if(depth == word.length) word = Arrays.copyOf(word, depth * 2);
+
+		char[] labels = node.getLabels();
+		DAWGNode[] targets = node.getTargets();
+		for(int i = 0; i < labels.length; i++) {
+			word[depth] = labels[i];
+			getWordsWithPrefix(targets[i], word, depth + 1, result, maxWords);
+		}
+	}
+
+	/*
+	 * Follows the characters of the word from the start state.
+	 * @param word			String
+	 * @return DAWGNode		state reached, or null if no word starts with `word`
+	 */
+	private DAWGNode getNode(String word) {
+		if(word == null) return null;
+
+		DAWGNode current = root;
+		int length = word.length();
+		for(int i = 0; i < length && current != null; i++) {
+			current = current.getChild(word.charAt(i));
+		}
+		return current;
+	}
+
+	/*
+	 * Counts the words accepted from a state, reusing the counts of states that did not change.
+	 * @param node		DAWGNode
+	 * @return int
+	 */
+	private int countWords(DAWGNode node) {
+		if(node.getNumWords() >= 0) return node.getNumWords();
+
+		int count = node.isFinal() ? 1 : 0;
+		for(DAWGNode target : node.getTargets()) {
+			count += countWords(target);
+		}
+
+		node.setNumWords(count);
+		return count;
+	}
+
+	/*
+	 * Minimizes the states on the path of the previous word that come after `depth` characters,
+	 * from the last one up. Each state is replaced by an equivalent state from the register, or
+	 * added to the register if there is none.
+	 * @param depth			int
+	 * @param path			ArrayList<DAWGNode>, states on the path of the previous word
+	 * @param register		HashMap<DAWGNode, DAWGNode>, minimized states
+	 */
+	private void minimize(int depth, ArrayList<DAWGNode> path, HashMap<DAWGNode, DAWGNode> register) {
+		for(int i = path.size() - 1; i > depth; i--) {
+			DAWGNode child = path.get(i);
+			DAWGNode parent = path.get(i - 1);
+
+			DAWGNode equivalent = register.get(child);
+			if(equivalent == null) register.put(child, child);
+			else parent.setLastTarget(equivalent);
+
+			path.remove(i);
+		}
+	}
+
+}
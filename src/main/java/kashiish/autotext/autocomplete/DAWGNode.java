@@ -0,0 +1,137 @@
+package main.java.kashiish.autotext.autocomplete;
+
+import java.util.Arrays;
+
+/**
+ * State of a DAWG. Two DAWGNodes are equal when they are both final or both not final and have
+ * the same outgoing edges to the very same states, which is when one can replace the other.
+ * @author kashish
+ *
+ */
+public class DAWGNode {
+
+	/* Empty edge collections, shared by all states without edges */
+	private static final char[] NO_LABELS = new char[0];
+	private static final DAWGNode[] NO_TARGETS = new DAWGNode[0];
+
+	/* Labels of the outgoing edges, in ascending order */
+	private char[] labels = NO_LABELS;
+	/* Targets of the outgoing edges */
+	private DAWGNode[] targets = NO_TARGETS;
+
+	/* Whether a word ends at this state */
+	private boolean isFinal = false;
+	/* The number of words accepted from this state, -1 if it has to be counted again */
+	private int numWords = -1;
+
+	/**
+	 * Returns whether a word ends at this state.
+	 * @return boolean
+	 */
+	public boolean isFinal() {
+		return this.isFinal;
+	}
+
+	/**
+	 * Sets whether a word ends at this state.
+	 * @param value		boolean
+	 */
+	public void setFinal(boolean value) {
+		this.isFinal = value;
+	}
+
+	/**
+	 * Gets the labels of the outgoing edges, in ascending order.
+	 * @return char[]
+	 */
+	public char[] getLabels() {
+		return this.labels;
+	}
+
+	/**
+	 * Gets the targets of the outgoing edges, in the same order as their labels.
+	 * @return DAWGNode[]
+	 */
+	public DAWGNode[] getTargets() {
+		return this.targets;
+	}
+
+	/**
+	 * Gets the state reached by the edge labeled `c`.
+	 * @param c				char
+	 * @return DAWGNode		null if there is no such edge
+	 */
+	public DAWGNode getChild(char c) {
+		int index = Arrays.binarySearch(labels, c);
+		return index >= 0 ? this.targets[index] : null;
+	}
+
+	/**
+	 * Adds an outgoing edge. Its label must come after the labels of the existing edges.
+	 * @param c				char
+	 * @param target		DAWGNode
+	 */
+	public void addEdge(char c, DAWGNode target) {
+		int length = labels.length;
+		this.labels = Arrays.copyOf(labels, length + 1);
+		this.targets = Arrays.copyOf(targets, length + 1);
+		this.labels[length] = c;
+		this.targets[length] = target;
+	}
+
+	/**
+	 * Replaces the target of the last outgoing edge.
+	 * @param target		DAWGNode
+	 */
+	public void setLastTarget(DAWGNode target) {
+		this.targets[targets.length - 1] = target;
+	}
+
+	/**
+	 * Gets the target of the last outgoing edge.
+	 * @return DAWGNode		null if there are no edges
+	 */
+	public DAWGNode getLastTarget() {
+		return targets.length == 0 ? null : targets[targets.length - 1];
+	}
+
+	/**
+	 * Gets the number of words accepted from this state.
+	 * @return int		-1 if it has to be counted again
+	 */
+	public int getNumWords() {
+		return this.numWords;
+	}
+
+	/**
+	 * Sets the number of words accepted from this state.
+	 * @param numWords		int, -1 if it has to be counted again
+	 */
+	public void setNumWords(int numWords) {
+		this.numWords = numWords;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(!(o instanceof DAWGNode)) return false;
+
+		DAWGNode other = (DAWGNode) o;
+		if(this.isFinal != other.isFinal || !Arrays.equals(this.labels, other.labels)) return false;
+
+		for(int i = 0; i < targets.length; i++) {
+			if(this.targets[i] != other.targets[i]) return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = isFinal ? 1 : 0;
+		for(int i = 0; i < labels.length; i++) {
+			hash = 31 * (31 * hash + labels[i]) + System.identityHashCode(targets[i]);
+		}
+		return hash;
+	}
+
+}
@@ -0,0 +1,312 @@
+package main.java.kashiish.autotext.autocomplete;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+import main.java.kashiish.autotext.SnapshotSection;
+
+/**
+ * Read-only Trie stored in a section of a snapshot, see {@link main.java.kashiish.autotext.AutoText#writeSnapshot(String)}.
+ * Nodes are numbered in breadth-first order, so the children of a node are consecutive and every
+ * node except the root is the target of exactly one edge: the edges of node i lead to nodes
+ * childStart[i] + 1 to childStart[i + 1]. Queries run directly on the mapped buffer.
+ *
+ * If the Trie ranks completions, the snapshot also holds the parent and count of each node and the
+ * cached completions of each node, as the nodes their words end at, so completions are ranked the
+ * same way as in the Trie.
+ * @author kashish
+ *
+ */
+public class MappedTrie implements WordCompleter {
+
+	/* Marks a missing child. */
+	private static final int NONE = -1;
+
+	/* The maximum number of matches to get while traversing the tree. */
+	private int maxMatches = 10;
+	/* The number of words in the trie. */
+	private int numWords;
+	/* The number of nodes in the trie (including the root). */
+	private int numNodes;
+	/* The number of best completions cached at each node, 0 if completions are not ranked. */
+	private int rankedMatches;
+
+	/* Index of the first edge of each node, plus the number of edges */
+	private IntBuffer childStart;
+	/* Character on the edge leading into each node */
+	private CharBuffer labels;
+	/* 1 if a word ends at the node, 0 otherwise */
+	private ByteBuffer leaf;
+	/* Parent of each node, only if completions are ranked */
+	private IntBuffer parents;
+	/* Count of the word that ends at each node, only if completions are ranked */
+	private LongBuffer frequencies;
+	/* Index of the first cached completion of each node, plus the number of completions */
+	private IntBuffer completionStart;
+	/* Nodes where the cached completions end, best first */
+	private IntBuffer completions;
+
+	/**
+	 * Creates a new MappedTrie from a snapshot section written by {@link #write(Trie, DataOutputStream)}.
+	 * @param section		SnapshotSection
+	 */
+	public MappedTrie(SnapshotSection section) {
+		this.numWords = section.readInt();
+		this.numNodes = section.readInt();
+		this.childStart = section.readInts(numNodes + 1);
+		this.labels = section.readChars(numNodes);
+		this.leaf = section.readBytes(numNodes);
+
+		this.rankedMatches = section.readInt();
+		if(isRanked()) {
+			this.parents = section.readInts(numNodes);
+			this.frequencies = section.readLongs(numNodes);
+			this.completionStart = section.readInts(numNodes + 1);
+			this.completions = section.readInts(completionStart.get(numNodes));
+		}
+	}
+
+	/**
+	 * Writes a Trie in the format read by {@link #MappedTrie(SnapshotSection)}.
+	 * @param trie			Trie
+	 * @param out			DataOutputStream
+	 * @throws IOException
+	 */
+	public static void write(Trie trie, DataOutputStream out) throws IOException {
+		//number the nodes in breadth-first order, with children sorted by character
+		ArrayList<TrieNode> nodes = new ArrayList<TrieNode>();
+		ArrayDeque<TrieNode> queue = new ArrayDeque<TrieNode>();
+		queue.add(trie.getRoot());
+
+		ArrayList<Integer> childCounts = new ArrayList<Integer>();
+		while(!queue.isEmpty()) {
+			TrieNode node = queue.poll();
+			nodes.add(node);
+
+			ArrayList<Character> keys = new ArrayList<Character>(node.getChildren().keySet());
+			Collections.sort(keys);
+			for(Character key : keys) {
+				queue.add(node.getChild(key));
+			}
+			childCounts.add(keys.size());
+		}
+
+		out.writeInt(trie.getNumWords());
+		out.writeInt(nodes.size());
+
+		int edges = 0;
+		for(int count : childCounts) {
+			out.writeInt(edges);
+			edges += count;
+		}
+		out.writeInt(edges);
+
+		for(TrieNode node : nodes) {
+			out.writeChar(node.getValue() == null ? '\0' : node.getValue());
+		}
+		for(TrieNode node : nodes) {
+			out.writeByte(node.isLeaf() ? 1 : 0);
+		}
+
+		if(!trie.isRanked()) {
+			out.writeInt(0);
+			return;
+		}
+
+		//the completions of a node are written as the nodes their words end at
+		HashMap<String, Integer> wordNodes = new HashMap<String, Integer>();
+		for(int i = 0; i < nodes.size(); i++) {
+			RankedWord word = nodes.get(i).getRankedWord();
+			if(word != null) wordNodes.put(word.getWord(), i);
+		}
+		out.writeInt(trie.getRankedMatches());
+
+		//the root is its own parent
+		out.writeInt(0);
+		for(int i = 0; i < nodes.size(); i++) {
+			for(int count = childCounts.get(i); count > 0; count--) {
+				out.writeInt(i);
+			}
+		}
+		for(TrieNode node : nodes) {
+			out.writeLong(node.getRankedWord() == null ? 0 : node.getRankedWord().getFrequency());
+		}
+
+		int offset = 0;
+		for(TrieNode node : nodes) {
+			out.writeInt(offset);
+			offset += node.getCompletions().size();
+		}
+		out.writeInt(offset);
+		for(TrieNode node : nodes) {
+			for(RankedWord word : node.getCompletions()) {
+				out.writeInt(wordNodes.get(word.getWord()));
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of words in the trie.
+	 * @return int
+	 */
+	@Override
+	public int getNumWords() {
+		return this.numWords;
+	}
+
+	/**
+	 * Sets the number of suggestions to return.
+	 * @param matches		int
+	 */
+	@Override
+	public void setMaxMatches(int matches) {
+		this.maxMatches = matches;
+	}
+
+	/**
+	 * Returns whether the Trie ranks completions by their count.
+	 * @return boolean
+	 */
+	@Override
+	public boolean isRanked() {
+		return this.rankedMatches > 0;
+	}
+
+	/**
+	 * Gets words with given prefix (including `prefix`, if it is a valid word). If the Trie ranks
+	 * completions, the best words are returned, best first, otherwise words are returned in
+	 * alphabetical order.
+	 * @param prefix				String
+	 * @return ArrayList<String>	A list of all words with prefix
+	 */
+	@Override
+	public ArrayList<String> getWordsWithPrefix(String prefix) {
+		ArrayList<String> wordsWithPrefix = new ArrayList<String>();
+
+		if(prefix == null || prefix.length() == 0) return wordsWithPrefix;
+
+		prefix = prefix.toLowerCase();
+
+		int length = prefix.length();
+		int current = 0;
+
+		//get to the last character of the prefix
+		for(int i = 0; i < length; i++) {
+			current = getChild(current, prefix.charAt(i));
+			if(current == NONE) return wordsWithPrefix;
+		}
+
+		if(isRanked()) {
+			getRankedWords(current, wordsWithPrefix);
+			return wordsWithPrefix;
+		}
+
+		char[] word = Arrays.copyOf(prefix.toCharArray(), length + 16);
+		getWordsWithPrefix(current, word, length, wordsWithPrefix);
+
+		return wordsWithPrefix;
+	}
+
+	/*
+	 * Traverses the subtree of `node` depth first and adds the words it contains into the result list.
+	 * @param node			int, current node
+	 * @param word			char[], characters of the current path
+	 * @param depth			int, number of characters in `word` that belong to the current path
+	 * @param result		ArrayList<String>, list that will contain all words with given prefix
+	 */
+	private void getWordsWithPrefix(int node, char[] word, int depth, ArrayList<String> result) {
+		if(result.size() == maxMatches) return;
+
+		if(leaf.get(node) != 0) result.add(new String(word, 0, depth));
+
+		if(depth == word.length) word = Arrays.copyOf(word, depth * 2);
+
+		int end = childStart.get(node + 1);
+		for(int edge = childStart.get(node); edge < end; edge++) {
+			word[depth] = labels.get(edge + 1);
+			getWordsWithPrefix(edge + 1, word, depth + 1, result);
+		}
+	}
+
+	/*
+	 * Adds the best `maxMatches` words in the subtree of `node` into the result list, like
+	 * {@link Trie#getWordsWithPrefix(String)}. The cached completions are copied when there are
+	 * enough of them, otherwise every word in the subtree is collected and sorted.
+	 * @param node			int, last node of the prefix
+	 * @param result		ArrayList<String>
+	 */
+	private void getRankedWords(int node, ArrayList<String> result) {
+		int start = completionStart.get(node);
+		int count = completionStart.get(node + 1) - start;
+
+		if(maxMatches > rankedMatches && count == rankedMatches) {
+			ArrayList<RankedWord> words = new ArrayList<RankedWord>();
+			collectRankedWords(node, words);
+			Collections.sort(words);
+			for(int i = 0; i < Math.min(maxMatches, words.size()); i++) {
+				result.add(words.get(i).getWord());
+			}
+			return;
+		}
+
+		for(int i = 0; i < Math.min(maxMatches, count); i++) {
+			result.add(getWord(completions.get(start + i)));
+		}
+	}
+
+	/*
+	 * Adds every word in the subtree of `node` into the list, with its count.
+	 * @param node			int
+	 * @param words			ArrayList<RankedWord>
+	 */
+	private void collectRankedWords(int node, ArrayList<RankedWord> words) {
+		if(leaf.get(node) != 0) words.add(new RankedWord(getWord(node), frequencies.get(node)));
+
+		int end = childStart.get(node + 1);
+		for(int edge = childStart.get(node); edge < end; edge++) {
+			collectRankedWords(edge + 1, words);
+		}
+	}
+
+	/*
+	 * Gets the word that ends at a node, following the parents up to the root.
+	 * @param node			int
+	 * @return String
+	 */
+	private String getWord(int node) {
+		StringBuilder word = new StringBuilder();
+		for(; node != 0; node = parents.get(node)) {
+			word.append(labels.get(node));
+		}
+		return word.reverse().toString();
+	}
+
+	/*
+	 * Binary searches the children of `node` for the edge labeled `c`.
+	 * @param node			int
+	 * @param c				char
+	 * @return int			child node or NONE if there is no such edge
+	 */
+	private int getChild(int node, char c) {
+		int low = childStart.get(node) + 1;
+		int high = childStart.get(node + 1);
+		while(low <= high) {
+			int mid = (low + high) >>> 1;
+			char label = labels.get(mid);
+			if(label < c) low = mid + 1;
+			else if(label > c) high = mid - 1;
+			else return mid;
+		}
+		return NONE;
+	}
+
+}
@@ -0,0 +1,152 @@
+package main.java.kashiish.autotext.autocomplete;
+
+/**
+ * Node representation for RadixTrie data structure. The label of the edge leading into the node
+ * is not stored in the node, it is a slice of the RadixTrie's shared character buffer.
+ * @author kashish
+ *
+ */
+public class RadixNode {
+
+	/* Empty collection of children, shared by all nodes without children */
+	private static final RadixNode[] NO_CHILDREN = new RadixNode[0];
+
+	/* Offset of the edge label in the shared buffer */
+	private int labelStart;
+	/* Length of the edge label */
+	private int labelLength;
+	/* First character of the edge label, children are sorted by it */
+	private char firstChar;
+	/* Collection of RadixNode's children, sorted by the first character of their labels */
+	private RadixNode[] children = NO_CHILDREN;
+
+	/* RadixNode leaf property */
+	private boolean isLeaf = false;
+
+	/**
+	 * Creates a new RadixNode object with an empty label (root).
+	 */
+	public RadixNode() {}
+
+	/**
+	 * Creates a new RadixNode object with the specified label.
+	 * @param labelStart		int, offset of the label in the shared buffer
+	 * @param labelLength		int, length of the label
+	 * @param firstChar			char, first character of the label
+	 */
+	public RadixNode(int labelStart, int labelLength, char firstChar) {
+		this.labelStart = labelStart;
+		this.labelLength = labelLength;
+		this.firstChar = firstChar;
+	}
+
+	/**
+	 * Gets the offset of the edge label in the shared buffer.
+	 * @return int
+	 */
+	public int getLabelStart() {
+		return this.labelStart;
+	}
+
+	/**
+	 * Gets the length of the edge label.
+	 * @return int
+	 */
+	public int getLabelLength() {
+		return this.labelLength;
+	}
+
+	/**
+	 * Gets the first character of the edge label.
+	 * @return char
+	 */
+	public char getFirstChar() {
+		return this.firstChar;
+	}
+
+	/**
+	 * Returns whether or not RadixNode is a leaf.
+	 * @return boolean		RadixNode leaf property
+	 */
+	public boolean isLeaf() {
+		return this.isLeaf;
+	}
+
+	/**
+	 * Sets the isLeaf property of RadixNode.
+	 * @param value		boolean, value of isLeaf property
+	 */
+	public void setLeaf(boolean value) {
+		this.isLeaf = value;
+	}
+
+	/**
+	 * Gets the RadixNode's children, sorted by the first character of their labels.
+	 * @return RadixNode[]
+	 */
+	public RadixNode[] getChildren() {
+		return this.children;
+	}
+
+	/**
+	 * Gets the child whose label starts with the specified character.
+	 * @param c				char
+	 * @return RadixNode	child or null if there is no such child
+	 */
+	public RadixNode getChild(char c) {
+		int index = indexOf(c);
+		return index >= 0 ? this.children[index] : null;
+	}
+
+	/**
+	 * Adds a child to RadixNode's children, keeping them sorted.
+	 * @param child		RadixNode, child to be added into the children collection
+	 */
+	public void addChild(RadixNode child) {
+		int index = -indexOf(child.firstChar) - 1;
+		RadixNode[] newChildren = new RadixNode[children.length + 1];
+		System.arraycopy(children, 0, newChildren, 0, index);
+		newChildren[index] = child;
+		System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+		this.children = newChildren;
+	}
+
+	/**
+	 * Splits the RadixNode's label after `length` characters. The RadixNode keeps the first part
+	 * of the label and a new child gets the rest of it, along with the RadixNode's children and
+	 * leaf property.
+	 * @param length		int, length of the label the RadixNode keeps
+	 * @param buffer		char[], shared buffer that holds the label
+	 * @return RadixNode	the new child
+	 */
+	public RadixNode split(int length, char[] buffer) {
+		RadixNode rest = new RadixNode(labelStart + length, labelLength - length, buffer[labelStart + length]);
+		rest.children = this.children;
+		rest.isLeaf = this.isLeaf;
+
+		this.labelLength = length;
+		this.children = new RadixNode[]{rest};
+		this.isLeaf = false;
+
+		return rest;
+	}
+
+	/*
+	 * Binary searches the children for the label starting with `c`.
+	 * @param c			char
+	 * @return int		index of the child, or (-(insertion point) - 1) if there is no such child
+	 */
+	private int indexOf(char c) {
+		int low = 0;
+		int high = children.length - 1;
+		while(low <= high) {
+			int mid = (low + high) >>> 1;
+			char midChar = children[mid].firstChar;
+			if(midChar < c) low = mid + 1;
+			else if(midChar > c) high = mid - 1;
+			else return mid;
+		}
+		return -(low + 1);
+	}
+
+}
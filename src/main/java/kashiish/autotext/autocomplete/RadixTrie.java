@@ -0,0 +1,220 @@
+package main.java.kashiish.autotext.autocomplete;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.Tree;
+
+/**
+ * Radix (Patricia) trie data structure. Chains of nodes with a single child are compressed into
+ * one edge, and every edge label is a slice of one shared character buffer. A word only adds the
+ * characters that no other word shares with it to the buffer, and splitting an edge never copies
+ * its label.
+ * @author kashish
+ *
+ */
+public class RadixTrie implements Tree {
+
+	/* Initial capacity of the shared buffer. */
+	private static final int INITIAL_CAPACITY = 4096;
+
+	/* The maximum number of matches to get while traversing the tree. */
+	private int maxMatches = 10;
+	/* Root of trie. */
+	private RadixNode root;
+	/* The number of words in the trie. */
+	private int numWords = 0;
+	/* The number of nodes in the trie (including the root). */
+	private int numNodes = 1;
+
+	/* Shared buffer that holds the edge labels. */
+	private char[] buffer = new char[INITIAL_CAPACITY];
+	/* The number of characters used in `buffer`. */
+	private int bufferLength = 0;
+
+	/**
+	 * Creates a new RadixTrie object.
+	 * @param lexicon 		Lexicon, words to add to the RadixTrie
+	 * @throws IOException
+	 */
+	public RadixTrie(Lexicon lexicon) throws IOException {
+		this.root = new RadixNode();
+		createTree(lexicon);
+	}
+
+	/**
+	 * Creates a new RadixTrie object with specified file of words to add to the tree.
+	 * @param fileName 		String
+	 * @throws IOException
+	 */
+	public RadixTrie(String fileName) throws IOException {
+		this.root = new RadixNode();
+		createTree(new Lexicon(fileName));
+	}
+
+	/**
+	 * Inserts a new word into the RadixTrie.
+	 * @param word		String, the word to be inserted
+	 */
+	@Override
+	public void insertWord(String word) {
+
+		if(word == null || word.length() == 0)
+			throw new IllegalArgumentException("String is not valid.");
+
+		word = word.toLowerCase();
+
+		RadixNode current = root;
+		int length = word.length();
+		int i = 0;
+
+		while(i < length) {
+			RadixNode child = current.getChild(word.charAt(i));
+
+			if(child == null) {
+				child = new RadixNode(append(word, i), length - i, word.charAt(i));
+				current.addChild(child);
+				this.numNodes++;
+				current = child;
+				break;
+			}
+
+			int matched = matchLabel(child, word, i);
+			if(matched < child.getLabelLength()) {
+				child.split(matched, buffer);
+				this.numNodes++;
+			}
+
+			current = child;
+			i += matched;
+		}
+
+		if(!current.isLeaf()) {
+			current.setLeaf(true);
+			this.numWords++;
+		}
+	}
+
+	@Override
+	public int getNumWords() {
+		return this.numWords;
+	}
+
+	/**
+	 * Returns the number of nodes in the RadixTrie, including the root.
+	 * @return int
+	 */
+	public int getNumNodes() {
+		return this.numNodes;
+	}
+
+	/**
+	 * Sets the number of suggestions to return.
+	 * @param matches		int
+	 */
+	@Override
+	public void setMaxMatches(int matches) {
+		this.maxMatches = matches;
+	}
+
+	/**
+	 * Gets words with given prefix (including `prefix`, if it is a valid word). Words are
+	 * returned in alphabetical order.
+	 * @param prefix				String
+	 * @return ArrayList<String>	A list of all words with prefix
+	 */
+	public ArrayList<String> getWordsWithPrefix(String prefix) {
+		ArrayList<String> wordsWithPrefix = new ArrayList<String>();
+
+		if(prefix == null || prefix.length() == 0) return wordsWithPrefix;
+
+		prefix = prefix.toLowerCase();
+
+		RadixNode current = root;
+		int length = prefix.length();
+		int i = 0;
+
+		//follow the edges of the prefix, the prefix may end in the middle of an edge
+		while(i < length) {
+			RadixNode child = current.getChild(prefix.charAt(i));
+			if(child == null) return wordsWithPrefix;
+
+			int matched = matchLabel(child, prefix, i);
+			if(matched < child.getLabelLength() && i + matched < length) return wordsWithPrefix;
+
+			current = child;
+			i += child.getLabelLength();
+		}
+
+		//the path to `current` is the prefix plus the rest of the last edge
+		int depth = i;
+		char[] word = Arrays.copyOf(prefix.toCharArray(), depth + 16);
+		int labelEnd = current.getLabelStart() + current.getLabelLength();
+		for(int j = length; j < depth; j++) {
+			word[j] = buffer[labelEnd - (depth - j)];
+		}
+
+		getWordsWithPrefix(current, word, depth, wordsWithPrefix);
+
+		return wordsWithPrefix;
+	}
+
+	/*
+	 * Traverses the subtree of `node` depth first and adds the words it contains into the result
+	 * list. `word` holds the characters on the path to `node` and is reused for the whole traversal.
+	 * @param node			RadixNode, current node
+	 * @param word			char[], characters of the current path
+	 * @param depth			int, number of characters in `word` that belong to the current path
+	 * @param result		ArrayList<String>, list that will contain all words with given prefix
+	 */
+	private void getWordsWithPrefix(RadixNode node, char[] word, int depth, ArrayList<String> result) {
+		if(result.size() == maxMatches) return;
+
+		if(node.isLeaf()) result.add(new String(word, 0, depth));
+
+		for(RadixNode child : node.getChildren()) {
+			int labelLength = child.getLabelLength();
+			if(depth + labelLength > word.length) word = Arrays.copyOf(word, (depth + labelLength) * 2);
+
+			System.arraycopy(buffer, child.getLabelStart(), word, depth, labelLength);
+			getWordsWithPrefix(child, word, depth + labelLength, result);
+		}
+	}
+
+	/*
+	 * Counts how many characters of the node's label match the word, starting at `start` in the word.
+	 * @param node			RadixNode
+	 * @param word			String
+	 * @param start			int
+	 * @return int
+	 */
+	private int matchLabel(RadixNode node, String word, int start) {
+		int labelStart = node.getLabelStart();
+		int max = Math.min(node.getLabelLength(), word.length() - start);
+		int matched = 0;
+		while(matched < max && buffer[labelStart + matched] == word.charAt(start + matched)) {
+			matched++;
+		}
+		return matched;
+	}
+
+	/*
+	 * Appends the word from index `start` to the shared buffer.
+	 * @param word			String
+	 * @param start			int
+	 * @return int			offset of the appended characters in the buffer
+	 */
+	private int append(String word, int start) {
+		int length = word.length() - start;
+		if(bufferLength + length > buffer.length)
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, bufferLength + length));
+
+		word.getChars(start, word.length(), buffer, bufferLength);
+		int offset = bufferLength;
+		bufferLength += length;
+		return offset;
+	}
+
+}
@@ -0,0 +1,53 @@
+package main.java.kashiish.autotext.autocomplete;
+
+/**
+ * A word and its count in the lexicon. RankedWords are ordered from the best completion
+ * to the worst: higher counts first, then shorter words, then alphabetically.
+ * @author kashish
+ *
+ */
+public class RankedWord implements Comparable<RankedWord> {
+
+	/* The word */
+	private String word;
+	/* The word's count in the lexicon */
+	private long frequency;
+
+	/**
+	 * Creates a new RankedWord object.
+	 * @param word			String
+	 * @param frequency		long
+	 */
+	public RankedWord(String word, long frequency) {
+		this.word = word;
+		this.frequency = frequency;
+	}
+
+	/**
+	 * Gets the word.
+	 * @return String
+	 */
+	public String getWord() {
+		return this.word;
+	}
+
+	/**
+	 * Gets the word's count.
+	 * @return long
+	 */
+	public long getFrequency() {
+		return this.frequency;
+	}
+
+	@Override
+	public int compareTo(RankedWord other) {
+		if(this.frequency != other.frequency) return Long.compare(other.frequency, this.frequency);
+		if(this.word.length() != other.word.length()) return this.word.length() - other.word.length();
+		return this.word.compareTo(other.word);
+	}
+
+	public String toString() {
+		return this.word;
+	}
+
+}
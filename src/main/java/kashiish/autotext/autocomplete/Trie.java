@@ -2,24 +2,34 @@ package main.java.kashiish.autotext.autocomplete;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Map.Entry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import main.java.kashiish.autotext.Lexicon;
-import main.java.kashiish.autotext.Tree;
+import main.java.kashiish.autotext.RemovableTree;
 
 /**
  * Trie data structure.
  * @author kashish
  *
  */
-public class Trie implements Tree {
+public class Trie implements RemovableTree, WordCompleter {
 	
 	/* The maximum number of matches to get while traversing the tree. */
 	private int maxMatches = 10;
-	/* Root of trie. */
-	private TrieNode root;
+	/* Root of trie. Readers only read it once per query, so they always see a complete version of the trie. */
+	private volatile TrieNode root;
 	/* The number of words in the trie. */
-	private int numWords = 0;
+	private volatile int numWords = 0;
+	/* Whether insertions copy the nodes they change instead of changing them, see {@link #setConcurrent(boolean)}. */
+	private boolean concurrent = false;
+	/* The number of best completions cached at each node, 0 if completions are not ranked. */
+	private int rankedMatches = 0;
 	
 	/**
 	 * Creates a new Trie object.
@@ -40,14 +50,68 @@ public class Trie implements Tree {
 		this.root = new TrieNode();
 		createTree(new Lexicon(fileName));
 	}
+	
+	/**
+	 * Creates a new Trie object that ranks completions by their count in the lexicon. Each node 
+	 * caches the `rankedMatches` best completions in its subtree, so getting the best words 
+	 * for a prefix only walks the prefix.
+	 * @param lexicon 			Lexicon, words (and their counts) to add to the Trie
+	 * @param rankedMatches		int, number of completions to cache at each node
+	 * @throws IOException 
+	 */
+	public Trie(Lexicon lexicon, int rankedMatches) throws IOException {
+		if(rankedMatches <= 0)
+			throw new IllegalArgumentException("Number of ranked matches must be positive.");
+		
+		this.root = new TrieNode();
+		this.rankedMatches = rankedMatches;
+		this.root.setCompletions(new ArrayList<RankedWord>());
+		createTree(lexicon);
+	}
 
+	/**
+	 * Inserts all the words from the lexicon into the Trie along with their counts. If the lexicon 
+	 * has no counts, words already in the Trie keep theirs.
+	 * @param lexicon			Lexicon, words to add to the tree
+	 * @throws IOException
+	 */
+	@Override
+	public void createTree(Lexicon lexicon) throws IOException {
+		HashSet<String> words = lexicon.getLexicon();
+		boolean weighted = lexicon.isWeighted();
+		for(String word : words) {
+			if(weighted) insertWord(word, lexicon.getFrequency(word));
+			else insertWord(word);
+		}
+	}
 	
 	/**
-	 * Inserts a new word into the Trie.
+	 * Inserts a new word into the Trie. A new word gets a count of 1, a word already in the Trie 
+	 * keeps its count.
 	 * @param word		String, the word to be inserted
 	 */
 	@Override
 	public void insertWord(String word) {
+		insertWord(word, 1, false);
+	}
+	
+	/**
+	 * Inserts a new word into the Trie with its count. If the word is already in the Trie,
+	 * its count is replaced. 
+	 * @param word			String, the word to be inserted
+	 * @param frequency		long, the word's count
+	 */
+	public void insertWord(String word, long frequency) {
+		insertWord(word, frequency, true);
+	}
+	
+	/*
+	 * Inserts a word into the Trie with its count.
+	 * @param word			String, the word to be inserted
+	 * @param frequency		long, the word's count
+	 * @param replaceCount	boolean, whether the count of a word already in the Trie is replaced
+	 */
+	private synchronized void insertWord(String word, long frequency, boolean replaceCount) {
 		
 		if(word == null || word.length() == 0)
 			throw new IllegalArgumentException("String is not valid.");
@@ -55,19 +119,113 @@ public class Trie implements Tree {
 		
 		word = word.toLowerCase();
 		
-		TrieNode current = root;	
+		TrieNode newRoot = writable(root);
+		TrieNode current = newRoot;	
 		
 		int length = word.length();
 		
+		//nodes on the path of the word, needed to update ranked completions
+		TrieNode[] path = new TrieNode[length + 1];
+		path[0] = newRoot;
+		
 		for(int i = 0; i < length; i++) {
 			char c = word.charAt(i);
-			if(current.getChild(c) == null)
-				current.addChild(new TrieNode(c));
+			TrieNode child = current.getChild(c);
+			if(child == null) {
+				child = newNode(c);
+				current.addChild(child);
+			} else if(concurrent) {
+				child = writable(child);
+				current.addChild(child);
+			}
 			
-			current = current.getChild(c);
+			current = child;
+			path[i + 1] = current;
 		}
+		boolean newWord = !current.isLeaf();
 		current.setLeaf(true);
-		this.numWords++;
+		
+		if(isRanked() && (replaceCount || current.getRankedWord() == null)) rankWord(path, new RankedWord(word, frequency));
+		
+		//publish the new version of the trie
+		this.root = newRoot;
+		if(newWord) this.numWords++;
+	}
+	
+	/**
+	 * Removes a word from the Trie, along with the nodes that no longer lead to any word.
+	 * In concurrent mode the nodes on the path of the word are copied, like in {@link #insertWord(String, long)}.
+	 * @param word			String
+	 * @return boolean		true if the word was in the Trie
+	 */
+	@Override
+	public synchronized boolean removeWord(String word) {
+		
+		if(word == null || word.length() == 0)
+			throw new IllegalArgumentException("String is not valid.");
+		
+		word = word.toLowerCase();
+		
+		int length = word.length();
+		
+		//find the word before anything is copied
+		TrieNode current = root;
+		for(int i = 0; i < length && current != null; i++) {
+			current = current.getChild(word.charAt(i));
+		}
+		if(current == null || !current.isLeaf()) return false;
+		
+		TrieNode[] path = new TrieNode[length + 1];
+		path[0] = writable(root);
+		for(int i = 0; i < length; i++) {
+			TrieNode child = path[i].getChild(word.charAt(i));
+			if(concurrent) {
+				child = writable(child);
+				path[i].addChild(child);
+			}
+			path[i + 1] = child;
+		}
+		
+		path[length].setLeaf(false);
+		path[length].setRankedWord(null);
+		
+		//prune the branch that no longer leads to a word
+		int last = length;
+		while(last > 0 && !path[last].isLeaf() && path[last].getChildren().isEmpty()) {
+			path[last - 1].removeChild(path[last].getValue());
+			last--;
+		}
+		
+		if(isRanked()) {
+			for(int i = last; i >= 0; i--) {
+				path[i].setCompletions(mergeCompletions(path[i]));
+			}
+		}
+		
+		this.root = path[0];
+		this.numWords--;
+		return true;
+	}
+	
+	/**
+	 * Turns concurrent mode on or off. In concurrent mode, any number of threads can get words from 
+	 * the Trie (also with cursors) while words are inserted, without locks: an insertion copies the 
+	 * nodes on the path of the word and then publishes the new root, so a query sees the Trie either 
+	 * before or after the insertion. Insertions are slower, so concurrent mode is best turned on once 
+	 * the Trie is built. Insertions are serialized.
+	 * @param concurrent		boolean
+	 */
+	public synchronized void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+	
+	/*
+	 * Gets a node that can be changed: a copy of the node in concurrent mode, the node itself otherwise.
+	 * @param node			TrieNode
+	 * @return TrieNode
+	 */
+	private TrieNode writable(TrieNode node) {
+		return concurrent ? new TrieNode(node) : node;
 	}
 	
 	
@@ -86,10 +244,21 @@ public class Trie implements Tree {
 	}
 	
 	/**
-	 * Gets words with given prefix (including `prefix`, if it is a valid word). 
+	 * Returns whether the Trie ranks completions by their count.
+	 * @return boolean
+	 */
+	@Override
+	public boolean isRanked() {
+		return this.rankedMatches > 0;
+	}
+	
+	/**
+	 * Gets words with given prefix (including `prefix`, if it is a valid word). If the Trie ranks
+	 * completions, the best words are returned, best first.
 	 * @param prefix				String
 	 * @return ArrayList<String>	A list of all words with prefix
 	 */
+	@Override
 	public ArrayList<String> getWordsWithPrefix(String prefix) {		
 		ArrayList<String> wordsWithPrefix = new ArrayList<String>();
 		
@@ -110,44 +279,323 @@ public class Trie implements Tree {
             current = node;
         }
         
-        getWordsWithPrefix(current, new StringBuilder(prefix), wordsWithPrefix);
-        
-        return wordsWithPrefix;
+        return getWordsWithPrefix(current, prefix);
         
 	}
 	
+	/**
+	 * Gets words that start with a prefix within `maxEdits` edits (insertions, deletions, substitutions 
+	 * and transpositions of adjacent characters) of the given prefix. The Trie is walked once while a
+	 * row of edit distances to the prefix is computed for each node, and branches whose whole row 
+	 * already exceeds `maxEdits` are pruned. Words are returned closest first.
+	 * @param prefix				String
+	 * @param maxEdits				int, maximum number of edits
+	 * @return ArrayList<String>
+	 */
+	public ArrayList<String> getWordsWithFuzzyPrefix(String prefix, int maxEdits) {
+		if(maxEdits < 0) 
+			throw new IllegalArgumentException("Number of edits must not be negative.");
+		
+		ArrayList<String> wordsWithPrefix = new ArrayList<String>();
+		
+		if(prefix == null || prefix.length() == 0) return wordsWithPrefix;
+		
+		prefix = prefix.toLowerCase();
+		
+		int length = prefix.length();
+		int[] row = new int[length + 1];
+		for(int j = 0; j <= length; j++) {
+			row[j] = j;
+		}
+		
+		//words found for each number of edits
+		ArrayList<ArrayList<String>> matches = new ArrayList<ArrayList<String>>();
+		for(int i = 0; i <= maxEdits; i++) {
+			matches.add(new ArrayList<String>());
+		}
+		
+		StringBuilder word = new StringBuilder();
+		for(TrieNode child : root.getChildren().values()) {
+			getWordsWithFuzzyPrefix(child, prefix, word, row, null, '\0', row[length], matches);
+		}
+		
+		for(ArrayList<String> words : matches) {
+			for(String match : words) {
+				if(wordsWithPrefix.size() == maxMatches) return wordsWithPrefix;
+				wordsWithPrefix.add(match);
+			}
+		}
+		
+		return wordsWithPrefix;
+	}
+	
 	/*
-	 * Traverses the Trie and adds new words into the result list if the current TrieNode is a leaf node.
-	 * Stops traversing the Trie once the maximum number of matches have been added to the list or
-	 * there are no more nodes left to traverse.
-	 * @param root			TrieNode, current node
-	 * @param word			StringBuilder
-	 * @param result		ArrayList<String>, list that will contain all words with given prefix
+	 * Computes the edit distances between the prefix and the path to `node`, then adds the node's word 
+	 * to the matches if some part of the path is close enough to the prefix and continues with the children.
+	 * @param node				TrieNode, current node
+	 * @param prefix			String
+	 * @param word				StringBuilder, characters on the path to the parent of `node`
+	 * @param previousRow		int[], distances between the prefixes of `prefix` and the path to the parent
+	 * @param twoRowsBack		int[], distances for the path to the grandparent, null at the root
+	 * @param previousChar		char, character of the parent
+	 * @param bestDistance		int, smallest distance between `prefix` and a part of the path to the parent
+	 * @param matches			ArrayList<ArrayList<String>>, words found for each number of edits
 	 */
-	private void getWordsWithPrefix(TrieNode root, StringBuilder word, ArrayList<String> result) {
-		if(root == null || result.size() == maxMatches) return;
-				
-		if(root.isLeaf()) result.add(String.valueOf(word));
+	private void getWordsWithFuzzyPrefix(TrieNode node, String prefix, StringBuilder word, int[] previousRow, int[] twoRowsBack,
+			char previousChar, int bestDistance, ArrayList<ArrayList<String>> matches) {
+		
+		char c = node.getValue();
+		int length = prefix.length();
+		int maxEdits = matches.size() - 1;
+		
+		int[] row = new int[length + 1];
+		row[0] = previousRow[0] + 1;
+		int rowMinimum = row[0];
+		
+		for(int j = 1; j <= length; j++) {
+			int substitution = previousRow[j - 1] + (prefix.charAt(j - 1) == c ? 0 : 1);
+			row[j] = Math.min(substitution, Math.min(previousRow[j], row[j - 1]) + 1);
+			
+			if(twoRowsBack != null && j > 1 && prefix.charAt(j - 2) == c && prefix.charAt(j - 1) == previousChar)
+				row[j] = Math.min(row[j], twoRowsBack[j - 2] + 1);
+			
+			rowMinimum = Math.min(rowMinimum, row[j]);
+		}
+		
+		bestDistance = Math.min(bestDistance, row[length]);
+		
+		//no word below this node can come within `maxEdits` of the prefix
+		if(bestDistance > maxEdits && rowMinimum > maxEdits) return;
+		
+		//every word below this node would only be added to lists that are already full
+		int lowestDistance = Math.min(bestDistance, rowMinimum);
+		boolean full = true;
+		for(int i = lowestDistance; i <= Math.min(bestDistance, maxEdits) && full; i++) {
+			full = matches.get(i).size() >= maxMatches;
+		}
+		if(full) return;
+		
+		word.append(c);
+		
+		if(node.isLeaf() && bestDistance <= maxEdits && matches.get(bestDistance).size() < maxMatches)
+			matches.get(bestDistance).add(word.toString());
+		
+		for(TrieNode child : node.getChildren().values()) {
+			getWordsWithFuzzyPrefix(child, prefix, word, row, previousRow, c, bestDistance, matches);
+		}
+		
+		word.setLength(word.length() - 1);
+	}
+	
+	/**
+	 * Creates a new cursor at the root of the Trie, to follow a prefix as it is typed.
+	 * @return TrieCursor
+	 */
+	public TrieCursor cursor() {
+		return new TrieCursor(this);
+	}
+	
+	/**
+	 * Creates an iterator over the words with given prefix (including `prefix`, if it is a valid word), 
+	 * in alphabetical order. Words are found lazily, `maxMatches` does not apply.
+	 * @param prefix				String
+	 * @return TrieIterator
+	 */
+	public TrieIterator iterator(String prefix) {
+		return iterator(prefix, null);
+	}
+	
+	/**
+	 * Creates an iterator over the words with given prefix that come after a continuation token, 
+	 * in alphabetical order. The token is the last word of the previous page, see 
+	 * {@link TrieIterator#getContinuationToken()}. It does not have to still be in the Trie.
+	 * @param prefix				String
+	 * @param continuationToken		String, null to start at the first word
+	 * @return TrieIterator
+	 */
+	public TrieIterator iterator(String prefix, String continuationToken) {
+		if(prefix == null || prefix.length() == 0) return new TrieIterator(null, "", null);
 		
-		for (Entry<Character, TrieNode> entry : root.getChildren().entrySet()) {
-			updateWord(entry.getValue(), word, result);
+		prefix = prefix.toLowerCase();
+		if(continuationToken != null) continuationToken = continuationToken.toLowerCase();
+		
+		TrieNode current = root;
+		for(int i = 0; i < prefix.length() && current != null; i++) {
+			current = current.getChild(prefix.charAt(i));
 		}
 		
+		return new TrieIterator(current, prefix, continuationToken);
+	}
+	
+	/**
+	 * Gets a lazy stream of the words with given prefix, in alphabetical order, see {@link #iterator(String)}.
+	 * @param prefix				String
+	 * @return Stream<String>
+	 */
+	public Stream<String> stream(String prefix) {
+		int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(prefix), characteristics), false);
 	}
 	
 	/*
-	 * Adds the current node's character onto `prefix` and calls `getWordsWithPrefix` to continue
-	 * traversing the tree and forming the full word.
-	 * @param root			TrieNode, current node
-	 * @param prefix		StringBuilder
+	 * Gets the number of best completions cached at each node.
+	 * @return int			0 if completions are not ranked
+	 */
+	int getRankedMatches() {
+		return this.rankedMatches;
+	}
+	
+	/*
+	 * Gets the root of the Trie.
+	 * @return TrieNode
+	 */
+	TrieNode getRoot() {
+		return this.root;
+	}
+	
+	/*
+	 * Gets words in the subtree of the last node of a prefix.
+	 * @param node				TrieNode, last node of the prefix
+	 * @param prefix			CharSequence
+	 * @return ArrayList<String>
+	 */
+	ArrayList<String> getWordsWithPrefix(TrieNode node, CharSequence prefix) {
+		ArrayList<String> wordsWithPrefix = new ArrayList<String>();
+		
+		if(isRanked()) {
+			getRankedWords(node, wordsWithPrefix);
+			return wordsWithPrefix;
+		}
+		
+		int length = prefix.length();
+		char[] word = new char[length + 16];
+		for(int i = 0; i < length; i++) {
+			word[i] = prefix.charAt(i);
+		}
+		getWordsWithPrefix(node, word, length, wordsWithPrefix);
+		
+		return wordsWithPrefix;
+	}
+	
+	/*
+	 * Adds the best `maxMatches` words in the subtree of `node` into the result list. The cached 
+	 * completions are copied when there are enough of them, otherwise every word in the subtree 
+	 * is collected and sorted.
+	 * @param node			TrieNode, last node of the prefix
 	 * @param result		ArrayList<String>
 	 */
-	private void updateWord(TrieNode node, StringBuilder prefix, ArrayList<String> result) {		
-		StringBuilder newPrefix = new StringBuilder(prefix);
+	private void getRankedWords(TrieNode node, ArrayList<String> result) {
+		ArrayList<RankedWord> completions = node.getCompletions();
+		
+		if(maxMatches > rankedMatches && completions.size() == rankedMatches) {
+			completions = new ArrayList<RankedWord>();
+			collectRankedWords(node, completions);
+			Collections.sort(completions);
+		}
+		
+		int size = Math.min(maxMatches, completions.size());
+		for(int i = 0; i < size; i++) {
+			result.add(completions.get(i).getWord());
+		}
+	}
+	
+	/*
+	 * Adds every ranked word in the subtree of `node` into the list.
+	 * @param node			TrieNode
+	 * @param words			ArrayList<RankedWord>
+	 */
+	private void collectRankedWords(TrieNode node, ArrayList<RankedWord> words) {
+		if(node.getRankedWord() != null) words.add(node.getRankedWord());
 		
-		newPrefix.append(node.getValue());
+		for(TrieNode child : node.getChildren().values()) {
+			collectRankedWords(child, words);
+		}
+	}
+	
+	/*
+	 * Stores the word at the last node of `path` and updates the cached completions of every node
+	 * on the path. A new word or a higher count is merged into each list; a lower count may let
+	 * another word back into a list, so the lists are rebuilt from the leaf up.
+	 * @param path			TrieNode[], nodes from the root to the word's last node
+	 * @param word			RankedWord
+	 */
+	private void rankWord(TrieNode[] path, RankedWord word) {
+		TrieNode leaf = path[path.length - 1];
+		RankedWord previous = leaf.getRankedWord();
+		leaf.setRankedWord(word);
+		
+		if(previous != null && previous.getFrequency() > word.getFrequency()) {
+			for(int i = path.length - 1; i >= 0; i--) {
+				path[i].setCompletions(mergeCompletions(path[i]));
+			}
+			return;
+		}
 		
-		getWordsWithPrefix(node, newPrefix, result);
+		for(TrieNode node : path) {
+			ArrayList<RankedWord> completions = node.getCompletions();
+			if(previous != null) completions.remove(previous);
+			
+			int index = -Collections.binarySearch(completions, word) - 1;
+			if(index >= rankedMatches) continue;
+			
+			completions.add(index, word);
+			if(completions.size() > rankedMatches) completions.remove(rankedMatches);
+		}
+	}
+	
+	/*
+	 * Builds the cached completions of a node from its own word and its children's completions.
+	 * @param node					TrieNode
+	 * @return ArrayList<RankedWord>
+	 */
+	private ArrayList<RankedWord> mergeCompletions(TrieNode node) {
+		ArrayList<RankedWord> completions = new ArrayList<RankedWord>();
+		if(node.getRankedWord() != null) completions.add(node.getRankedWord());
+		
+		for(TrieNode child : node.getChildren().values()) {
+			completions.addAll(child.getCompletions());
+		}
+		
+		Collections.sort(completions);
+		if(completions.size() > rankedMatches) 
+			completions.subList(rankedMatches, completions.size()).clear();
+		
+		return completions;
+	}
+	
+	/*
+	 * Creates a new TrieNode, with an empty list of completions if the Trie ranks completions.
+	 * @param c				char
+	 * @return TrieNode
+	 */
+	private TrieNode newNode(char c) {
+		TrieNode node = new TrieNode(c);
+		if(isRanked()) node.setCompletions(new ArrayList<RankedWord>());
+		return node;
+	}
+	
+	/*
+	 * Traverses the Trie and adds new words into the result list if the current TrieNode is a leaf node.
+	 * Stops traversing the Trie once the maximum number of matches have been added to the list or
+	 * there are no more nodes left to traverse. The characters of the path are written into one buffer,
+	 * a String is only created for a word that is added.
+	 * @param root			TrieNode, current node
+	 * @param word			char[], characters of the current path
+	 * @param depth			int, number of characters in `word` that belong to the current path
+	 * @param result		ArrayList<String>, list that will contain all words with given prefix
+	 */
+	private void getWordsWithPrefix(TrieNode root, char[] word, int depth, ArrayList<String> result) {
+		if(root == null || result.size() == maxMatches) return;
+				
+		if(root.isLeaf()) result.add(new String(word, 0, depth));
+		
+		//the children share the buffer, the parent only reads the part before `depth`
+		if(depth == word.length) word = Arrays.copyOf(word, depth * 2);
+		
+		for(TrieNode child : root.getChildren().values()) {
+			word[depth] = child.getValue();
+			getWordsWithPrefix(child, word, depth + 1, result);
+		}
 		
 	}
 
@@ -0,0 +1,115 @@
+package main.java.kashiish.autotext.autocomplete;
+
+import java.util.ArrayList;
+
+/**
+ * Cursor that follows a prefix through a Trie one keystroke at a time. The cursor keeps the
+ * nodes on the path of the current prefix, so appending a character follows one edge and
+ * deleting a character pops the last node, no matter how long the prefix is.
+ * @author kashish
+ *
+ */
+public class TrieCursor {
+
+	/* Trie the cursor walks through */
+	private Trie trie;
+	/* Nodes on the path of the prefix, starting with the root. A null node means the prefix left the Trie. */
+	private ArrayList<TrieNode> path;
+	/* The current prefix */
+	private StringBuilder prefix;
+
+	/**
+	 * Creates a new TrieCursor at the root of the Trie (empty prefix).
+	 * @param trie			Trie
+	 */
+	TrieCursor(Trie trie) {
+		this.trie = trie;
+		this.path = new ArrayList<TrieNode>();
+		this.prefix = new StringBuilder();
+		reset();
+	}
+
+	/**
+	 * Appends a character to the prefix.
+	 * @param c				char
+	 */
+	public void append(char c) {
+		c = Character.toLowerCase(c);
+		TrieNode current = getNode();
+		path.add(current == null ? null : current.getChild(c));
+		prefix.append(c);
+	}
+
+	/**
+	 * Removes the last character of the prefix. Does nothing if the prefix is empty.
+	 */
+	public void backspace() {
+		if(prefix.length() == 0) return;
+		path.remove(path.size() - 1);
+		prefix.setLength(prefix.length() - 1);
+	}
+
+	/**
+	 * Moves the cursor back to the root of the Trie (empty prefix).
+	 */
+	public void reset() {
+		path.clear();
+		path.add(trie.getRoot());
+		prefix.setLength(0);
+	}
+
+	/**
+	 * Moves the cursor to the given prefix.
+	 * @param prefix		String
+	 */
+	public void setPrefix(String prefix) {
+		reset();
+		int length = prefix.length();
+		for(int i = 0; i < length; i++) {
+			append(prefix.charAt(i));
+		}
+	}
+
+	/**
+	 * Gets the current prefix.
+	 * @return String
+	 */
+	public String getPrefix() {
+		return prefix.toString();
+	}
+
+	/**
+	 * Returns the number of characters in the current prefix.
+	 * @return int
+	 */
+	public int length() {
+		return prefix.length();
+	}
+
+	/**
+	 * Returns whether the current prefix starts at least one word in the Trie.
+	 * @return boolean
+	 */
+	public boolean hasWords() {
+		return prefix.length() > 0 && getNode() != null;
+	}
+
+	/**
+	 * Gets words with the current prefix, the same words {@link Trie#getWordsWithPrefix(String)}
+	 * would return for it.
+	 * @return ArrayList<String>
+	 */
+	public ArrayList<String> getWords() {
+		if(!hasWords()) return new ArrayList<String>();
+		return trie.getWordsWithPrefix(getNode(), prefix);
+	}
+
+	/*
+	 * Gets the node at the end of the current prefix.
+	 * @return TrieNode		null if no word has the current prefix
+	 */
+	private TrieNode getNode() {
+		return path.get(path.size() - 1);
+	}
+
+}
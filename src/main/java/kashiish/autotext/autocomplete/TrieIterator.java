@@ -0,0 +1,148 @@
+package main.java.kashiish.autotext.autocomplete;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over the words of a Trie that have a prefix, in alphabetical order. Words are found
+ * one at a time by a depth-first search with an explicit stack, so a caller only pays for the
+ * words it takes. The last word returned is a continuation token: an iterator created with it
+ * (see {@link Trie#iterator(String, String)}) continues with the next word, which is how results
+ * are read page by page.
+ * @author kashish
+ *
+ */
+public class TrieIterator implements Iterator<String> {
+
+	/* Nodes on the current path, with the position in their children */
+	private ArrayDeque<Frame> stack;
+	/* Characters on the current path, starting with the prefix */
+	private StringBuilder word;
+	/* The number of characters in the prefix */
+	private int prefixLength;
+	/* The next word to return, null if it has not been found yet */
+	private String nextWord;
+	/* The last word returned (or the continuation token the iterator started after) */
+	private String lastWord;
+
+	/**
+	 * Creates a new TrieIterator over the subtree of the prefix's last node.
+	 * @param node					TrieNode, last node of the prefix, null if no word has the prefix
+	 * @param prefix				String
+	 * @param continuationToken		String, a word with the prefix to start after, null to start at the first word
+	 */
+	TrieIterator(TrieNode node, String prefix, String continuationToken) {
+		this.stack = new ArrayDeque<Frame>();
+		this.word = new StringBuilder(prefix);
+		this.prefixLength = prefix.length();
+		this.lastWord = continuationToken;
+
+		if(node == null) return;
+
+		stack.push(new Frame(node));
+		if(continuationToken != null) skipTo(continuationToken);
+	}
+
+	@Override
+	public boolean hasNext() {
+		if(nextWord == null) nextWord = findNext();
+		return nextWord != null;
+	}
+
+	@Override
+	public String next() {
+		if(!hasNext()) throw new NoSuchElementException();
+
+		lastWord = nextWord;
+		nextWord = null;
+		return lastWord;
+	}
+
+	/**
+	 * Gets the continuation token: the last word returned, or the token the iterator was created
+	 * with if no word has been returned yet.
+	 * @return String		null if the iterator started at the first word and no word has been returned
+	 */
+	public String getContinuationToken() {
+		return this.lastWord;
+	}
+
+	/*
+	 * Continues the depth-first search until the next word is found.
+	 * @return String		null if there are no words left
+	 */
+	private String findNext() {
+		while(!stack.isEmpty()) {
+			Frame top = stack.peek();
+
+			if(!top.visited) {
+				top.visited = true;
+				if(top.node.isLeaf()) return word.toString();
+			}
+
+			if(top.next < top.keys.length) {
+				char c = top.keys[top.next++];
+				word.append(c);
+				stack.push(new Frame(top.node.getChild(c)));
+			} else {
+				stack.pop();
+				if(!stack.isEmpty()) word.setLength(prefixLength + stack.size() - 1);
+			}
+		}
+
+		return null;
+	}
+
+	/*
+	 * Moves the search to the point right after the continuation token, so that only the
+	 * words that come after it are found.
+	 * @param token			String
+	 */
+	private void skipTo(String token) {
+		if(!token.startsWith(word.toString()))
+			throw new IllegalArgumentException("Continuation token does not have the prefix.");
+
+		//the prefix itself comes before the token
+		stack.peek().visited = true;
+
+		for(int i = prefixLength; i < token.length(); i++) {
+			Frame top = stack.peek();
+			char c = token.charAt(i);
+
+			//skip the children that come before `c`
+			int index = Arrays.binarySearch(top.keys, c);
+			if(index < 0) {
+				top.next = -index - 1;
+				return;
+			}
+
+			top.next = index + 1;
+			word.append(c);
+			Frame child = new Frame(top.node.getChild(c));
+			child.visited = true;
+			stack.push(child);
+		}
+	}
+
+	/* Frame of the depth-first search: a node, its children's characters in order and the next one to visit. */
+	private static class Frame {
+		TrieNode node;
+		char[] keys;
+		int next = 0;
+		boolean visited = false;
+
+		Frame(TrieNode node) {
+			this.node = node;
+			this.keys = new char[node.getChildren().size()];
+			int i = 0;
+			for(Character key : node.getChildren().keySet()) {
+				keys[i++] = key;
+			}
+			Arrays.sort(keys);
+		}
+
+	}
+
+}
@@ -1,5 +1,6 @@
 package main.java.kashiish.autotext.autocomplete;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 
 import main.java.kashiish.autotext.Node;
@@ -18,6 +19,11 @@ public class TrieNode implements Node<Character, TrieNode, Character> {
 	
 	/* TrieNode leaf property */
     private boolean isLeaf = false;
+    
+    /* Word ending at this TrieNode and its count, only kept when the Trie ranks completions */
+    private RankedWord rankedWord;
+    /* Best completions in this TrieNode's subtree, only kept when the Trie ranks completions */
+    private ArrayList<RankedWord> completions;
   
     /** Creates a new TrieNode object. */
     public TrieNode() {
@@ -32,6 +38,18 @@ public class TrieNode implements Node<Character, TrieNode, Character> {
         this.children = new HashMap<Character, TrieNode>();
     }
     
+    /**
+     * Creates a copy of a TrieNode, with its own collection of children and list of completions.
+     * @param other		TrieNode
+     */
+    public TrieNode(TrieNode other) {
+    	this.value = other.value;
+    	this.children = new HashMap<Character, TrieNode>(other.children);
+    	this.isLeaf = other.isLeaf;
+    	this.rankedWord = other.rankedWord;
+    	if(other.completions != null) this.completions = new ArrayList<RankedWord>(other.completions);
+    }
+    
     /**
      * Returns whether or not TrieNode is a leaf.
      * @return boolean		TrieNode leaf property
@@ -48,6 +66,38 @@ public class TrieNode implements Node<Character, TrieNode, Character> {
     	this.isLeaf = value;
     }
     
+    /**
+     * Gets the word ending at this TrieNode with its count.
+     * @return RankedWord		null if the TrieNode is not a leaf or completions are not ranked
+     */
+    public RankedWord getRankedWord() {
+    	return this.rankedWord;
+    }
+    
+    /**
+     * Sets the word ending at this TrieNode with its count.
+     * @param rankedWord		RankedWord
+     */
+    public void setRankedWord(RankedWord rankedWord) {
+    	this.rankedWord = rankedWord;
+    }
+    
+    /**
+     * Gets the best completions in this TrieNode's subtree, best first.
+     * @return ArrayList<RankedWord>		null if completions are not ranked
+     */
+    public ArrayList<RankedWord> getCompletions() {
+    	return this.completions;
+    }
+    
+    /**
+     * Sets the best completions in this TrieNode's subtree.
+     * @param completions		ArrayList<RankedWord>, sorted best first
+     */
+    public void setCompletions(ArrayList<RankedWord> completions) {
+    	this.completions = completions;
+    }
+    
     /** 
 	 * Gets the TrieNode's value. 
 	 * @return Character	TrieNode's value
@@ -83,6 +133,14 @@ public class TrieNode implements Node<Character, TrieNode, Character> {
 	public void addChild(TrieNode child) {
 		this.children.put(child.getValue(), child);
 	}
+	
+	/**
+     * Removes the child with the specified character from TrieNode's collection of children.
+     * @param c			Character, child's character
+     */
+	public void removeChild(Character c) {
+		this.children.remove(c);
+	}
 
 
 }
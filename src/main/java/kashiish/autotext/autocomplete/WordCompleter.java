@@ -0,0 +1,39 @@
+package main.java.kashiish.autotext.autocomplete;
+
+import java.util.ArrayList;
+
+/**
+ * Words that can complete a prefix, but can only be queried, like a {@link MappedTrie}. A 
+ * {@link Trie} can also be changed.
+ * @author kashish
+ *
+ */
+public interface WordCompleter {
+
+	/**
+	 * Gets words with given prefix (including `prefix`, if it is a valid word). If completions 
+	 * are ranked, the best words are returned, best first.
+	 * @param prefix				String
+	 * @return ArrayList<String>
+	 */
+	ArrayList<String> getWordsWithPrefix(String prefix);
+	
+	/**
+	 * Returns whether completions are ranked by their count.
+	 * @return boolean
+	 */
+	boolean isRanked();
+	
+	/**
+	 * Sets the maximum number of words {@link #getWordsWithPrefix(String)} returns.
+	 * @param matches				int
+	 */
+	void setMaxMatches(int matches);
+	
+	/**
+	 * Returns the number of words.
+	 * @return int
+	 */
+	int getNumWords();
+
+}
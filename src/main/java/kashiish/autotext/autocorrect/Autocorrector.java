@@ -0,0 +1,13 @@
+package main.java.kashiish.autotext.autocorrect;
+
+import main.java.kashiish.autotext.RemovableTree;
+
+/**
+ * Collection of words that can suggest corrections for a misspelled word, and that words can be 
+ * added to and removed from.
+ * @author kashish
+ *
+ */
+public interface Autocorrector extends WordCorrector, RemovableTree {
+
+}
@@ -2,36 +2,81 @@ package main.java.kashiish.autotext.autocorrect;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import main.java.kashiish.autotext.Lexicon;
-import main.java.kashiish.autotext.Tree;
 
 /**
  * BKTree data structure.
  * @author kashish
  *
  */
-public class BKTree implements Tree {
+public class BKTree implements Autocorrector {
 	
 	/* The maximum edit distance a word can have from input word to be considered a similar word/autocorrect word. */
-	private static final int TOLERANCE = 3;
-	/* The maximum number of matches to get while searching for similar words. */
-	private static final int MAX_MATCHES = 10;
+	static final int TOLERANCE = 3;
+	/* The tree is compacted once more than this fraction of its nodes hold removed words. */
+	static final double MAX_DELETED_RATIO = 0.25;
 	/* The maximum number of suggestions to return when {@link #getClosestWords(String)} is called. */
 	private int maxSuggestions = 3;
-	/* Root of tree. */
-	private TreeNode root;
+	/* Root of tree. Readers only read it once per query, so they always see a complete version of the tree. */
+	private volatile TreeNode root;
 	/* The number of words in the tree. */
-	private int size = 0;
+	private volatile int size = 0;
+	/* The number of nodes that hold removed words. */
+	private int deleted = 0;
+	/* Whether insertions copy the nodes they change instead of changing them, see {@link #setConcurrent(boolean)}. */
+	private boolean concurrent = false;
+	/* Queries that visit this many nodes search the rest of the tree in parallel, see {@link #setParallel(boolean)}. */
+	static final int PARALLEL_THRESHOLD = 256;
+	/* Whether hard queries are spread over the common fork/join pool. */
+	private volatile boolean parallel = false;
+	/* Layout the edit distance is weighted for */
+	private KeyboardLayout layout;
 
 	
+	/**
+	 * Creates a new empty BKTree.
+	 */
+	public BKTree() {
+		this(KeyboardLayout.QWERTY);
+	}
+	
+	/**
+	 * Creates a new empty BKTree for words typed on a keyboard layout.
+	 * @param layout		KeyboardLayout
+	 */
+	public BKTree(KeyboardLayout layout) {
+		this.layout = layout;
+	}
+	
 	/**
 	 * Creates a new BKTree. 
 	 * @param lexicon		Lexicon, words to add to the BKTree
 	 * @throws IOException
 	 */
 	public BKTree(Lexicon lexicon) throws IOException {
+		this(lexicon, KeyboardLayout.QWERTY);
+	}
+	
+	/**
+	 * Creates a new BKTree for words typed on a keyboard layout, for example 
+	 * {@link KeyboardLayout#AZERTY}. 
+	 * @param lexicon		Lexicon, words to add to the BKTree
+	 * @param layout		KeyboardLayout
+	 * @throws IOException
+	 */
+	public BKTree(Lexicon lexicon, KeyboardLayout layout) throws IOException {
+		this.layout = layout;
 		createTree(lexicon);
 	}
 	
@@ -40,22 +85,21 @@ public class BKTree implements Tree {
 	 * @throws IOException
 	 */
 	public BKTree(String fileName) throws IOException {
-		createTree(new Lexicon(fileName));
+		this(new Lexicon(fileName));
 	}
 	
 	
 	/**
-	 * Inserts a new word into the BKTree.
+	 * Inserts a new word into the BKTree. A word that is already in the BKTree is ignored.
 	 * @param word		String
 	 */
 	@Override
-	public void insertWord(String word) {
+	public synchronized void insertWord(String word) {
 		
 		if(word == null || word.length() == 0)
 			throw new IllegalArgumentException("String is not valid.");
 		
-		//remove everthing except letters
-		word = word.toLowerCase().replaceAll("[^a-z]", "");
+		word = normalize(word);
 				
 		if(root == null) {
 			root = new TreeNode(word);
@@ -64,23 +108,362 @@ public class BKTree implements Tree {
 		}
 		
 		TreeNode current = root;
+		
+		//nodes above `current`, only needed to copy the path in concurrent mode
+		ArrayList<TreeNode> path = concurrent ? new ArrayList<TreeNode>() : null;
 			
 		int distance = getDistance(word, current.getValue());
 		
-		while(current.getChild(distance) != null && distance != 0) {
+		//different words can have a distance of 0, only stop at the same word
+		while(current.getChild(distance) != null && !current.getValue().equals(word)) {
+			if(path != null) path.add(current);
 			current = current.getChild(distance);
 			distance = getDistance(word, current.getValue());
 		}
 		
-		current.addChild(new TreeNode(word, distance));
+		if(current.getValue().equals(word)) {
+			if(!current.isDeleted()) return;
+			
+			//the word was removed before, bring its node back
+			if(path == null) {
+				current.setDeleted(false);
+			} else {
+				TreeNode copy = new TreeNode(current);
+				copy.setDeleted(false);
+				publish(path, copy);
+			}
+			this.deleted--;
+			this.size++;
+			return;
+		}
+		
+		TreeNode child = new TreeNode(word, distance);
+		
+		if(path == null) {
+			current.addChild(child);
+		} else {
+			TreeNode copy = new TreeNode(current);
+			copy.addChild(child);
+			publish(path, copy);
+		}
+		
 		this.size++;
 	}
 	
+	/**
+	 * Removes a word from the BKTree. The word's node is only marked as removed, so removing a word
+	 * costs one lookup; once too many nodes are marked, the tree is compacted (see {@link #compact()}).
+	 * @param word			String
+	 * @return boolean		true if the word was in the BKTree
+	 */
+	@Override
+	public synchronized boolean removeWord(String word) {
+		
+		if(word == null || word.length() == 0)
+			throw new IllegalArgumentException("String is not valid.");
+		
+		word = normalize(word);
+		
+		ArrayList<TreeNode> path = new ArrayList<TreeNode>();
+		TreeNode current = root;
+		
+		//follow the same edges as the insertion of the word
+		while(current != null && (current.isDeleted() || !current.getValue().equals(word))) {
+			path.add(current);
+			current = current.getChild(getDistance(word, current.getValue()));
+		}
+		if(current == null) return false;
+		
+		if(concurrent) {
+			TreeNode copy = new TreeNode(current);
+			copy.setDeleted(true);
+			publish(path, copy);
+		} else {
+			current.setDeleted(true);
+		}
+		
+		this.size--;
+		this.deleted++;
+		
+		if(deleted > (size + deleted) * MAX_DELETED_RATIO) compact();
+		
+		return true;
+	}
+	
+	/**
+	 * Removes the nodes of removed words from the tree. Subtrees without removed words are kept as
+	 * they are, the subtree of a removed word is rebuilt from the words left in it. The new version 
+	 * of the tree is published like an insertion in concurrent mode.
+	 */
+	public synchronized void compact() {
+		if(deleted == 0) return;
+		
+		this.root = compact(root);
+		this.deleted = 0;
+	}
+	
+	/*
+	 * Compacts the subtree of `node`.
+	 * @param node			TreeNode
+	 * @return TreeNode		`node` if its subtree has no removed words, otherwise a new subtree 
+	 * 						(null if no words are left in it)
+	 */
+	private TreeNode compact(TreeNode node) {
+		if(node.isDeleted()) {
+			ArrayList<String> words = new ArrayList<String>();
+			collectWords(node, words);
+			if(words.isEmpty()) return null;
+			
+			//every word in the subtree has the same distance from the parent
+			TreeNode subtree = node == root ? new TreeNode(words.get(0)) : new TreeNode(words.get(0), node.getDistanceFromParent());
+			for(int i = 1; i < words.size(); i++) {
+				insertWord(subtree, words.get(i), layout);
+			}
+			return subtree;
+		}
+		
+		TreeNode copy = null;
+		for(TreeNode child : node.getChildren().values()) {
+			TreeNode compacted = compact(child);
+			if(compacted == child) continue;
+			
+			if(copy == null) copy = new TreeNode(node);
+			if(compacted == null) copy.getChildren().remove(child.getDistanceFromParent());
+			else copy.addChild(compacted);
+		}
+		
+		return copy == null ? node : copy;
+	}
+	
+	/*
+	 * Adds the words in the subtree of `node` that were not removed into the list.
+	 * @param node			TreeNode
+	 * @param words			ArrayList<String>
+	 */
+	private void collectWords(TreeNode node, ArrayList<String> words) {
+		if(!node.isDeleted()) words.add(node.getValue());
+		
+		for(TreeNode child : node.getChildren().values()) {
+			collectWords(child, words);
+		}
+	}
+	
+	/*
+	 * Inserts a normalized word into the subtree of `node`, the same way as {@link #insertWord(String)}.
+	 * @param node			TreeNode
+	 * @param word			String
+	 * @param layout		KeyboardLayout
+	 * @return boolean		false if the word was already in the subtree
+	 */
+	private static boolean insertWord(TreeNode node, String word, KeyboardLayout layout) {
+		int distance = EditDistance.getDistance(word, node.getValue(), Integer.MAX_VALUE, layout);
+		
+		while(node.getChild(distance) != null && !node.getValue().equals(word)) {
+			node = node.getChild(distance);
+			distance = EditDistance.getDistance(word, node.getValue(), Integer.MAX_VALUE, layout);
+		}
+		
+		if(node.getValue().equals(word)) return false;
+		
+		node.addChild(new TreeNode(word, distance));
+		return true;
+	}
+	
+	/**
+	 * Inserts all the words from a lexicon into the BKTree. An empty BKTree is built in parallel
+	 * on the common fork/join pool, see {@link BuildTask}; the tree is the same as if the words
+	 * were inserted one at a time. Words are inserted one at a time into a BKTree that is not empty.
+	 * @param lexicon		Lexicon
+	 * @throws IOException
+	 */
+	@Override
+	public synchronized void createTree(Lexicon lexicon) throws IOException {
+		if(root != null || lexicon.getNumWords() == 0) {
+			Autocorrector.super.createTree(lexicon);
+			return;
+		}
+		
+		ArrayList<String> words = new ArrayList<String>(lexicon.getNumWords());
+		for(String word : lexicon.getLexicon()) {
+			words.add(normalize(word));
+		}
+		
+		TreeNode root = new TreeNode(words.get(0));
+		int inserted = new BuildTask(root, words.subList(1, words.size()), layout).invoke();
+		
+		this.root = root;
+		this.size = inserted + 1;
+	}
+	
+	/*
+	 * Builds the subtree of a node from a list of words, in parallel. Inserting the words one at a time
+	 * sends each word to the child of the node at the word's distance, in the same order, so the words
+	 * are split into buckets by distance: the first word of a bucket becomes the child and the rest of
+	 * the bucket is built below it by another task. Small lists are inserted one at a time.
+	 */
+	private static class BuildTask extends RecursiveTask<Integer> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		/* Lists with fewer words are built on one thread. */
+		private static final int THRESHOLD = 512;
+		
+		/* Node the words are inserted below */
+		private TreeNode node;
+		/* Normalized words, in insertion order */
+		private List<String> words;
+		private KeyboardLayout layout;
+		
+		public BuildTask(TreeNode node, List<String> words, KeyboardLayout layout) {
+			this.node = node;
+			this.words = words;
+			this.layout = layout;
+		}
+
+		/*
+		 * Builds the subtree.
+		 * @return Integer		the number of words inserted
+		 */
+		@Override
+		protected Integer compute() {
+			int inserted = 0;
+			
+			if(words.size() < THRESHOLD) {
+				for(String word : words) {
+					if(insertWord(node, word, layout)) inserted++;
+				}
+				return inserted;
+			}
+			
+			int[] distances = new int[words.size()];
+			new DistanceTask(node.getValue(), words, distances, 0, words.size(), layout).invoke();
+			
+			//words at each distance from the node, in insertion order
+			HashMap<Integer, ArrayList<String>> buckets = new HashMap<Integer, ArrayList<String>>();
+			for(int i = 0; i < distances.length; i++) {
+				if(words.get(i).equals(node.getValue())) continue;
+				
+				ArrayList<String> bucket = buckets.get(distances[i]);
+				if(bucket == null) {
+					bucket = new ArrayList<String>();
+					buckets.put(distances[i], bucket);
+				}
+				bucket.add(words.get(i));
+			}
+			
+			ArrayList<BuildTask> tasks = new ArrayList<BuildTask>();
+			for(Entry<Integer, ArrayList<String>> bucket : buckets.entrySet()) {
+				ArrayList<String> bucketWords = bucket.getValue();
+				TreeNode child = new TreeNode(bucketWords.get(0), bucket.getKey());
+				node.addChild(child);
+				tasks.add(new BuildTask(child, bucketWords.subList(1, bucketWords.size()), layout));
+			}
+			
+			inserted = buckets.size();
+			for(BuildTask task : invokeAll(tasks)) {
+				inserted += task.join();
+			}
+			return inserted;
+		}
+		
+	}
+	
+	/*
+	 * Computes the distances between a word and a range of a list of words, in parallel.
+	 */
+	private static class DistanceTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private String word;
+		private List<String> words;
+		private int[] distances;
+		private int start;
+		private int end;
+		private KeyboardLayout layout;
+		
+		public DistanceTask(String word, List<String> words, int[] distances, int start, int end, KeyboardLayout layout) {
+			this.word = word;
+			this.words = words;
+			this.distances = distances;
+			this.start = start;
+			this.end = end;
+			this.layout = layout;
+		}
+
+		@Override
+		protected void compute() {
+			if(end - start <= BuildTask.THRESHOLD) {
+				for(int i = start; i < end; i++) {
+					distances[i] = EditDistance.getDistance(words.get(i), word, Integer.MAX_VALUE, layout);
+				}
+				return;
+			}
+			
+			int middle = (start + end) >>> 1;
+			invokeAll(new DistanceTask(word, words, distances, start, middle, layout), 
+					  new DistanceTask(word, words, distances, middle, end, layout));
+		}
+		
+	}
+	
+	/*
+	 * Copies the nodes above a changed node bottom-up, then publishes the new version of the tree.
+	 * @param path			ArrayList<TreeNode>, nodes from the root to the parent of `node`
+	 * @param node			TreeNode, changed copy of a node
+	 */
+	private void publish(ArrayList<TreeNode> path, TreeNode node) {
+		for(int i = path.size() - 1; i >= 0; i--) {
+			TreeNode parent = new TreeNode(path.get(i));
+			parent.addChild(node);
+			node = parent;
+		}
+		this.root = node;
+	}
+	
+	/**
+	 * Turns concurrent mode on or off. In concurrent mode, any number of threads can get the closest 
+	 * words while words are inserted, without locks: an insertion copies the nodes on the path to the 
+	 * new node and then publishes the new root, so a query sees the BKTree either before or after the 
+	 * insertion. Insertions are serialized.
+	 * @param concurrent		boolean
+	 */
+	public synchronized void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+	
+	/**
+	 * Turns parallel queries on or off. A query starts on the calling thread either way; in parallel 
+	 * mode, a query that has visited many nodes without finishing searches the subtrees it has left 
+	 * on the common fork/join pool, so easy queries cost the same and hard ones finish sooner.
+	 * @param parallel			boolean
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+	
 	@Override
 	public int getNumWords() {
 		return this.size;
 	}
 	
+	/*
+	 * Gets the root of the tree.
+	 * @return TreeNode		null if the tree is empty
+	 */
+	TreeNode getRoot() {
+		return this.root;
+	}
+	
+	/*
+	 * Lowercases the word and removes everything except letters.
+	 * @param word			String
+	 * @return String
+	 */
+	static String normalize(String word) {
+		return word.toLowerCase().replaceAll("[^a-z]", "");
+	}
+	
 	/**
 	 * Sets the maximum number of autocorrected words to return. 
 	 * @param matches		int 
@@ -96,10 +479,45 @@ public class BKTree implements Tree {
 	 * @param word				String
 	 * @return ArrayList<String>	
 	 */
+	@Override
 	public ArrayList<String> getClosestWords(String word) {
-		//Get closest words (edit distance within TOLERANCE)
-		HashSet<CloseWord> closeWords = getCloseWords(word);
-		
+		return getClosestWords(word, new QueryOptions(TOLERANCE, maxSuggestions));
+	}
+	
+	/**
+	 * Gets a list of words from the BKTree that have the shortest edit distance from 
+	 * the input word, searching as far as the options' tolerance for the word.
+	 * @param word				String
+	 * @param options			QueryOptions
+	 * @return ArrayList<String>	
+	 */
+	@Override
+	public ArrayList<String> getClosestWords(String word, QueryOptions options) {
+		return getClosestWords(getNearestCloseWords(word, options, true));
+	}
+	
+	/**
+	 * Gets the `k` words from the BKTree that are closest to the input word, closest first. Only
+	 * words within the tolerance are returned.
+	 * @param word				String
+	 * @param k					int, the maximum number of words to return
+	 * @return ArrayList<String>
+	 */
+	public ArrayList<String> getNearestWords(String word, int k) {
+		ArrayList<String> words = new ArrayList<String>();
+		for(CloseWord closeWord : getNearestCloseWords(word, new QueryOptions(TOLERANCE, k), false)) {
+			words.add(closeWord.word);
+		}
+		return words;
+	}
+	
+	/*
+	 * Gets the words from `closeWords` that have the shortest edit distance.
+	 * @param closeWords			HashSet<CloseWord>
+	 * @param maxSuggestions		int, the maximum number of words to return
+	 * @return ArrayList<String>
+	 */
+	static ArrayList<String> getClosestWords(HashSet<CloseWord> closeWords, int maxSuggestions) {
 		//The shortest distance found within `closeWords`
 		int shortestDistance = Integer.MAX_VALUE;
 		
@@ -121,8 +539,22 @@ public class BKTree implements Tree {
 		return closestWords;
 	}
 	
+	/*
+	 * Gets the words with the shortest edit distance from a list of nearest words.
+	 * @param nearest				ArrayList<CloseWord>, sorted closest first
+	 * @return ArrayList<String>
+	 */
+	static ArrayList<String> getClosestWords(ArrayList<CloseWord> nearest) {
+		ArrayList<String> closestWords = new ArrayList<String>();
+		for(CloseWord closeWord : nearest) {
+			if(closeWord.distance != nearest.get(0).distance) break;
+			closestWords.add(closeWord.word);
+		}
+		return closestWords;
+	}
+	
 	/* CloseWord class contains a word and its distance from the queried word. */
-	private class CloseWord {
+	static class CloseWord implements Comparable<CloseWord> {
 		String word;
 		int distance;
 		
@@ -130,160 +562,269 @@ public class BKTree implements Tree {
 			this.word = word;
 			this.distance = distance;
 		}
+
+		@Override
+		public int compareTo(CloseWord other) {
+			if(this.distance != other.distance) return Integer.compare(this.distance, other.distance);
+			return this.word.compareTo(other.word);
+		}
+		
+	}
+	
+	/*
+	 * Adds a word to the `k` nearest words found so far, dropping the farthest one if there are too many.
+	 * @param nearest			PriorityQueue<CloseWord>, farthest word first
+	 * @param closeWord			CloseWord
+	 * @param k					int
+	 * @param closestOnly		boolean, whether only the words with the shortest distance are kept
+	 */
+	static void addNearest(PriorityQueue<CloseWord> nearest, CloseWord closeWord, int k, boolean closestOnly) {
+		if(closestOnly && !nearest.isEmpty() && closeWord.distance < nearest.peek().distance) nearest.clear();
 		
+		nearest.add(closeWord);
+		if(nearest.size() > k) nearest.poll();
+	}
+	
+	/*
+	 * Gets the search radius: the tolerance until `k` words are found, then the largest distance
+	 * that would still improve on the farthest of them. If only the words with the shortest distance
+	 * are kept, the radius shrinks to that distance as soon as one word is found.
+	 * @param nearest			PriorityQueue<CloseWord>, farthest word first
+	 * @param k					int
+	 * @param closestOnly		boolean
+	 * @param tolerance			int
+	 * @return int
+	 */
+	static int getRadius(PriorityQueue<CloseWord> nearest, int k, boolean closestOnly, int tolerance) {
+		if(nearest.size() == k) return nearest.peek().distance - 1;
+		if(closestOnly && !nearest.isEmpty()) return nearest.peek().distance;
+		return tolerance;
+	}
+	
+	/*
+	 * Sorts the nearest words, closest first.
+	 * @param nearest			PriorityQueue<CloseWord>
+	 * @return ArrayList<CloseWord>
+	 */
+	static ArrayList<CloseWord> sortNearest(PriorityQueue<CloseWord> nearest) {
+		ArrayList<CloseWord> sorted = new ArrayList<CloseWord>(nearest);
+		Collections.sort(sorted);
+		return sorted;
 	}
 	
 	/*
-	 * Gets a set of the words that have edit distance within the specified tolerance (static variable)
-	 * from the input word.
+	 * Searches the tree best-first for the `k` words closest to the input word, where `k` is the 
+	 * maximum number of results of the options. Nodes are visited in 
+	 * the order of the smallest distance a word in their subtree can have, and once `k` words are 
+	 * found the radius shrinks to the distance of the farthest of them, so the search stops as soon 
+	 * as no unvisited subtree can hold a closer word.
 	 * @param word					String
-	 * @return HashSet<String>
+	 * @param options				QueryOptions
+	 * @param closestOnly			boolean, whether only the words with the shortest distance are wanted
+	 * @return ArrayList<CloseWord>	sorted closest first
 	 */
-	private HashSet<CloseWord> getCloseWords(String word) {
-		HashSet<CloseWord> closeWords = new HashSet<CloseWord>();
-		if(word.equals("")) return closeWords;
+	private ArrayList<CloseWord> getNearestCloseWords(String word, QueryOptions options, boolean closestOnly) {
+		PriorityQueue<CloseWord> nearest = new PriorityQueue<CloseWord>(Collections.reverseOrder());
+		int k = options.getMaxResults();
+		
+		TreeNode root = this.root;
+		if(root == null || k <= 0 || word.equals("")) return sortNearest(nearest);
+		
+		word = normalize(word);
+		int tolerance = options.getTolerance(word);
+		
+		DistanceFilter filter = new DistanceFilter(word, layout);
+		PriorityQueue<Candidate> queue = new PriorityQueue<Candidate>();
+		queue.add(new Candidate(root, 0));
+		int visited = 0;
 		
-		getCloseWords(closeWords, root, word.toLowerCase().replaceAll("[^a-z]", ""));
+		while(!queue.isEmpty()) {
+			if(parallel && visited++ == PARALLEL_THRESHOLD) {
+				searchInParallel(word, queue, nearest, k, closestOnly, tolerance, layout);
+				break;
+			}
 			
-		return closeWords;
+			Candidate candidate = queue.poll();
+			int radius = getRadius(nearest, k, closestOnly, tolerance);
+			if(candidate.bound > radius) break;
+			
+			//past this distance neither the node nor any of its children can be close enough
+			TreeNode node = candidate.node;
+			int bound = radius + node.getMaxChildDistance();
+			if(filter.getLowerBound(node.getValue()) > bound) continue;
+			int distance = EditDistance.getDistance(word, node.getValue(), bound, layout);
+			if(distance > bound) continue;
+			
+			if(distance <= radius && !node.isDeleted()) {
+				addNearest(nearest, new CloseWord(node.getValue(), distance), k, closestOnly);
+				radius = getRadius(nearest, k, closestOnly, tolerance);
+			}
+			
+			//every word below a child has the child's distance from this node
+			for(TreeNode child : node.getChildren().values()) {
+				int childBound = Math.max(candidate.bound, Math.abs(distance - child.getDistanceFromParent()));
+				if(childBound <= radius) queue.add(new Candidate(child, childBound));
+			}
+		}
 		
+		return sortNearest(nearest);
 	}
 	
 	/*
-	 * Recursive helper function that traverses the root's children that have edit distance
-	 * within the range of `TOLERANCE` from the input `word`. Adds root value to 
-	 * `closeWords` if edit distance is less than or equal to <TOLERANCE>.
-	 * @param closeWords		HashSet<String>
-	 * @param root 				TreeNode
-	 * @param word				String
+	 * Searches the subtrees of the candidates left in the queue in parallel, one task per candidate,
+	 * and merges the words each task finds into the nearest words. The tasks share the search radius, 
+	 * so a close word found by one task prunes the subtrees of the others. The tasks are forked by a 
+	 * {@link ParallelSearchTask} on the common fork/join pool, since the query may run on any thread.
+	 * @param word					String, normalized word
+	 * @param queue					PriorityQueue<Candidate>, subtrees left to search
+	 * @param nearest				PriorityQueue<CloseWord>, farthest word first
+	 * @param k						int
+	 * @param closestOnly			boolean
+	 * @param tolerance				int
+	 * @param layout				KeyboardLayout
 	 */
-	private void getCloseWords(HashSet<CloseWord> closeWords, TreeNode root, String word) {
-		if(root == null) return;
-		if(closeWords.size() == MAX_MATCHES) return;
+	private static void searchInParallel(String word, PriorityQueue<Candidate> queue, PriorityQueue<CloseWord> nearest, 
+										 int k, boolean closestOnly, int tolerance, KeyboardLayout layout) {
+		AtomicInteger radius = new AtomicInteger(getRadius(nearest, k, closestOnly, tolerance));
 		
-		int distance = getDistance(word, root.getValue());
-		int minDist = (distance - TOLERANCE);
-		int maxDist = (distance + TOLERANCE);
-				
-		if(distance <= TOLERANCE)
-			closeWords.add(new CloseWord(root.getValue(), distance));
+		ArrayList<SearchTask> tasks = new ArrayList<SearchTask>(queue.size());
+		for(Candidate candidate : queue) {
+			if(candidate.bound <= radius.get()) tasks.add(new SearchTask(word, candidate, radius, k, closestOnly, tolerance, layout));
+		}
 		
-		for(int i = minDist; i <= maxDist; i++) {
-			TreeNode node = root.getChild(i);
-			if(node != null)
-				getCloseWords(closeWords, node, word);
+		ForkJoinPool.commonPool().invoke(new ParallelSearchTask(tasks));
+		for(SearchTask task : tasks) {
+			for(CloseWord closeWord : task.join()) {
+				if(closeWord.distance <= getRadius(nearest, k, closestOnly, tolerance)) 
+					addNearest(nearest, closeWord, k, closestOnly);
+			}
+		}
+	}
+	
+	/* Runs the search tasks of a query, forking them from a thread of the pool. */
+	private static class ParallelSearchTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private List<SearchTask> tasks;
+		
+		public ParallelSearchTask(List<SearchTask> tasks) {
+			this.tasks = tasks;
+		}
+		
+		@Override
+		protected void compute() {
+			invokeAll(tasks);
 		}
 		
 	}
 	
 	/*
-	 * Calculates the edit distance between two strings using Damerau-Levenshtein's Distance weighted for
-	 * QWERTY keyboard. 
-	 * @param wordA		String
-	 * @param wordB		String
-	 * @return double	Edit distance between input strings
+	 * Searches the subtree of a candidate depth-first for the `k` words closest to the input word, 
+	 * keeping its own nearest words and lowering the shared radius whenever they allow it.
 	 */
-	private int getDistance(String wordA, String wordB) {
+	private static class SearchTask extends RecursiveTask<PriorityQueue<CloseWord>> {
 		
-		if(wordA.length() == 0 || wordB.length() == 0) return Math.max(wordA.length(), wordB.length());
+		private static final long serialVersionUID = 1L;
 		
-		int m = wordA.length();
-		int n = wordB.length();
+		private String word;
+		private Candidate candidate;
+		/* Search radius shared by all the tasks of a query */
+		private AtomicInteger radius;
+		private int k;
+		private boolean closestOnly;
+		private int tolerance;
+		private KeyboardLayout layout;
+		/* Nearest words found by this task, farthest word first */
+		private PriorityQueue<CloseWord> nearest;
+		private DistanceFilter filter;
 		
-		int[][] memo = new int[m + 1][n + 1];
+		public SearchTask(String word, Candidate candidate, AtomicInteger radius, int k, boolean closestOnly, int tolerance, 
+						  KeyboardLayout layout) {
+			this.word = word;
+			this.candidate = candidate;
+			this.radius = radius;
+			this.k = k;
+			this.closestOnly = closestOnly;
+			this.tolerance = tolerance;
+			this.layout = layout;
+		}
 
-		getDistanceUtil(wordA, wordB, m, n, memo);
+		@Override
+		protected PriorityQueue<CloseWord> compute() {
+			nearest = new PriorityQueue<CloseWord>(Collections.reverseOrder());
+			filter = new DistanceFilter(word, layout);
+			search(candidate.node, candidate.bound);
+			return nearest;
+		}
+		
+		/*
+		 * Searches the subtree of a node.
+		 * @param node			TreeNode
+		 * @param lowerBound	int, the smallest distance a word in the subtree can have
+		 */
+		private void search(TreeNode node, int lowerBound) {
+			int radius = this.radius.get();
+			if(lowerBound > radius) return;
+			
+			int bound = radius + node.getMaxChildDistance();
+			if(filter.getLowerBound(node.getValue()) > bound) return;
+			int distance = EditDistance.getDistance(word, node.getValue(), bound, layout);
+			if(distance > bound) return;
+			
+			if(distance <= radius && !node.isDeleted()) {
+				addNearest(nearest, new CloseWord(node.getValue(), distance), k, closestOnly);
+				
+				//any `k` words found by this task are as good as the words of the whole query
+				int localRadius = getRadius(nearest, k, closestOnly, tolerance);
+				while(localRadius < radius && !this.radius.compareAndSet(radius, localRadius)) {
+					radius = this.radius.get();
+				}
+				radius = Math.min(radius, localRadius);
+			}
+			
+			for(TreeNode child : node.getChildren().values()) {
+				int childBound = Math.max(lowerBound, Math.abs(distance - child.getDistanceFromParent()));
+				if(childBound <= radius) search(child, childBound);
+			}
+		}
 		
-		return memo[m][n];
 	}
 	
-	/*
-	 * Helper recursive function for {@link #getDistance(String, String)}.
-	 * @param wordA			String		
-	 * @param wordB			String
-	 * @param i				int, index of current character in wordA
-	 * @param j				int, index of current character in wordB
-	 * @param memo			double[][], used to store previously calculated results
-	 * @return double		edit distance between substrings wordA[i:m] and wordB[j:n]
-	 */
-	private int getDistanceUtil(String wordA, String wordB, int i, int j, int[][] memo) {
-		if(i == 0 && j == 0) return 0;
-		if(i == 0 || j == 0) return Math.max(i, j) + 2;
-		if(memo[i][j] != 0) return memo[i][j];
-		
-		if(wordA.charAt(i - 1) == wordB.charAt(j - 1))
-			return memo[i][j] = getDistanceUtil(wordA, wordB, i - 1, j - 1, memo);
-		
-		boolean keysAreClose = keysAreClose(wordA.charAt(i - 1), wordB.charAt(j - 1));
-		boolean isTransposed = isTransposed(wordA, wordB, i, j);
-		int substitutionWeight = !keysAreClose && isTransposed ? -2 : (keysAreClose ? 0 : 1) + (isTransposed ? 0 : 1);
-		
-		
-		int substitute = getDistanceUtil(wordA, wordB, i - 1, j - 1, memo) + substitutionWeight;
-		/* 
-		 * Adds one to the value if the previous character is not the same as current character and
-		 * subtracts one if it is the same.
-		 * Helps decrease the edit distance if a character is typed consecutively or is missing a repeated letter.
-		 * For example "catle" -> "cattle" or "mapple" -> "maple"
-		 */
-		int insert = getDistanceUtil(wordA, wordB, i, j - 1, memo) + (samePreviousChar(wordB, j) ? -1 : 1);
-		int delete = getDistanceUtil(wordA, wordB, i - 1, j, memo) + (samePreviousChar(wordA, i) ? -1 : 1);
-		return memo[i][j] = Math.min(substitute, Math.min(insert, delete)) + 1;
+	/* Candidate class contains a node to visit and the smallest distance a word in its subtree can have. */
+	private static class Candidate implements Comparable<Candidate> {
+		TreeNode node;
+		int bound;
+		
+		public Candidate(TreeNode node, int bound) {
+			this.node = node;
+			this.bound = bound;
+		}
 
-	}
-			
-	/*
-	 * Checks if the previous character before index k in the word is the same as 
-	 * the character at index k. 
-	 * @param word		String	
-	 * @param k			int, index of current character
-	 * @return boolean
-	 */
-	private boolean samePreviousChar(String word, int k) {
-		if(word.length() < 3) return false;
-		if(k == word.length()) {
-			return word.charAt(k - 1) == word.charAt(k - 2);
-		} else {
-			return word.charAt(k) == word.charAt(k - 1);
+		@Override
+		public int compareTo(Candidate other) {
+			return Integer.compare(this.bound, other.bound);
 		}
+		
 	}
 	
-	/*
-	 * Determines if a character from one string is transposed in the other.
-	 * @param wordA			String
-	 * @param wordB			String
-	 * @param i				int, index of wordA character
-	 * @param j				int, index of wordB character
-	 * @return boolean
+	/**
+	 * Gets the keyboard layout the edit distance of the BKTree is weighted for.
+	 * @return KeyboardLayout
 	 */
-	private boolean isTransposed(String wordA, String wordB, int i, int j) {
-		return i > 1 && j > 1 && wordA.charAt(i - 2) == wordB.charAt(j - 1) && wordA.charAt(i - 1) == wordB.charAt(j - 2);
+	public KeyboardLayout getLayout() {
+		return this.layout;
 	}
 	
 	/*
-	 * This function determines if two keys (chars) are close to each other on a QWERTY
-	 * keyboard. 
-	 * Thank you to @scott @StackOverflow https://stackoverflow.com/questions/7079183/how-to-check-efficiently-if-two-characters-are-neighbours-on-the-keyboard
-	 * @param a				char
-	 * @param b				char
-	 * @return boolean
-	 */
-	private boolean keysAreClose(char a, char b) {
-		/* 
-		 * Assign numbers to each character determined by the key position on qwerty keyboard.
-		 * The first row has 10 letters and middle row has 9. 10 - 9 = 1, so the middle row characters have an additional 0.1 added.
-		 * The last row has 7 letters, so last row characters have an additional 0.3 added.
-		 */
-		double[] chars = new double[]{10.1, 24.3, 22.3, 12.1, 2, 13.1, 14.1, 15.1, 7, 16.1, 17.1, 18.1, 
-									  26.3, 25.3, 8, 9, 0, 3, 11.1, 4, 6, 23.3, 1, 21.3, 5, 20.3};
-
-		double one = chars[a - 97];
-		double two = chars[b - 97];
-				
-		double val = Math.abs(one - two);
-				
-		return ((double) Math.round(val * 10) / 10 == 1 || val > 9 && val <= 11);
-		
+	 * Calculates the edit distance between two strings using Damerau-Levenshtein's Distance weighted for
+	 * the keyboard layout of the BKTree, see {@link EditDistance}. 
+	 * @param wordA		String
+	 * @param wordB		String
+	 * @return int		Edit distance between input strings
+	 */
+	private int getDistance(String wordA, String wordB) {
+		return EditDistance.getDistance(wordA, wordB, Integer.MAX_VALUE, layout);
 	}
 
 }
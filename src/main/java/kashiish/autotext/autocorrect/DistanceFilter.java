@@ -0,0 +1,164 @@
+package main.java.kashiish.autotext.autocorrect;
+
+/**
+ * Cheap lower bound on the {@link EditDistance} between a query word and other words, so words that
+ * can not be close enough are rejected without computing the distance. A filter is made once per
+ * query and is not thread-safe.
+ *
+ * The weighted distance is not bounded by the number of edits: deleting or inserting a repeated letter
+ * is free and a transposition of keys that are not close lowers the distance by 1, so the bound only
+ * counts what these can not explain. Every character is used by a step of the alignment. A character
+ * that is not repeated and is not part of a transposition can only be matched (at most as many times
+ * as the letter is in the other word) or be used by a step that costs at least 1, or 2 away from the
+ * edges of the table. Each row and column has at most one step that lowers the distance.
+ *
+ * Each word is kept as one bit mask of positions per letter (words of up to 64 characters), so the
+ * repeated letters and transpositions of a word are found with a few bit operations per character.
+ * @author kashish
+ *
+ */
+public class DistanceFilter {
+
+	/* The longest word that can be filtered, one bit per character. */
+	public static final int MAX_LENGTH = 64;
+
+	/* The query word */
+	private CharSequence word;
+	/* Layout the distance is weighted for */
+	private KeyboardLayout layout;
+	/* Positions of each letter in the query word, indexed by `letter - 'a'` */
+	private long[] positions = new long[26];
+	/* Positions of the query word that can be deleted for free */
+	private long free;
+	/* Letters of the query word, each once */
+	private char[] letters;
+	/* Positions of each letter in the word being filtered, reused for every word */
+	private long[] otherPositions = new long[26];
+
+	/**
+	 * Creates a new filter for a normalized query word (lowercase letters).
+	 * @param word			CharSequence
+	 */
+	public DistanceFilter(CharSequence word) {
+		this(word, KeyboardLayout.QWERTY);
+	}
+
+	/**
+	 * Creates a new filter for a normalized query word (lowercase letters), for the distance weighted
+	 * for a keyboard layout.
+	 * @param word			CharSequence
+	 * @param layout		KeyboardLayout
+	 */
+	public DistanceFilter(CharSequence word, KeyboardLayout layout) {
+		this.word = word;
+		this.layout = layout;
+		if(word.length() == 0 || word.length() > MAX_LENGTH) return;
+
+		this.free = setPositions(word, positions);
+
+		StringBuilder letters = new StringBuilder();
+		for(int k = 0; k < word.length(); k++) {
+			if(isFirst(positions, word.charAt(k), k)) letters.append(word.charAt(k));
+		}
+		this.letters = letters.toString().toCharArray();
+	}
+
+	/**
+	 * Gets a lower bound on the edit distance between the query word and a normalized word.
+	 * @param other			CharSequence
+	 * @return int			Integer.MIN_VALUE if one of the words is empty or too long to filter
+	 */
+	public int getLowerBound(CharSequence other) {
+		int m = word.length();
+		int n = other.length();
+		if(m == 0 || n == 0 || m > MAX_LENGTH || n > MAX_LENGTH) return Integer.MIN_VALUE;
+
+		long otherFree = setPositions(other, otherPositions);
+
+		//positions that can be part of a transposition, and the number of them that lower the distance
+		long transposed = 0;
+		int lowering = 0;
+		for(int k = 1; k < m; k++) {
+			char a = word.charAt(k - 1);
+			char b = word.charAt(k);
+			if(a != b && (otherPositions[b - 'a'] << 1 & otherPositions[a - 'a']) != 0) {
+				transposed |= 1L << k;
+				if(!layout.keysAreClose(a, b)) lowering++;
+			}
+		}
+
+		long otherTransposed = 0;
+		int otherLowering = 0;
+		for(int k = 1; k < n; k++) {
+			char a = other.charAt(k - 1);
+			char b = other.charAt(k);
+			if(a != b && (positions[b - 'a'] << 1 & positions[a - 'a']) != 0) {
+				otherTransposed |= 1L << k;
+				if(!layout.keysAreClose(a, b)) otherLowering++;
+			}
+		}
+
+		//characters of each word that can only be used by a step that costs something
+		int costly = 0;
+		for(char c : letters) {
+			int matches = Long.bitCount(otherPositions[c - 'a']);
+			costly += Math.max(0, Long.bitCount(positions[c - 'a'] & ~free & ~transposed) - matches);
+		}
+
+		int otherCostly = 0;
+		for(int k = 0; k < n; k++) {
+			char c = other.charAt(k);
+			if(!isFirst(otherPositions, c, k)) continue;
+			
+			int matches = Long.bitCount(positions[c - 'a']);
+			otherCostly += Math.max(0, Long.bitCount(otherPositions[c - 'a'] & ~otherFree & ~otherTransposed) - matches);
+		}
+
+		for(int k = 0; k < n; k++) {
+			otherPositions[other.charAt(k) - 'a'] = 0;
+		}
+
+		//steps along the edges of the table cost 1 each, plus 2 to leave the corner
+		int steps = Math.max(costly, otherCostly);
+		return Math.min(2 * steps, steps + 2) - Math.min(lowering, otherLowering);
+	}
+
+	/*
+	 * Sets the positions of each letter in a word, which must be cleared, and gets the positions of the 
+	 * word that cost nothing to delete, the same characters as {@link EditDistance}: a character followed 
+	 * by the same character, or the last character if it is the same as the one before it. Words shorter 
+	 * than 3 have none.
+	 * @param word			CharSequence
+	 * @param positions		long[]
+	 * @return long			free positions
+	 */
+	private static long setPositions(CharSequence word, long[] positions) {
+		long free = 0;
+		char previous = word.charAt(0);
+		positions[previous - 'a'] |= 1L;
+
+		for(int k = 1; k < word.length(); k++) {
+			char c = word.charAt(k);
+			positions[c - 'a'] |= 1L << k;
+			if(c == previous) free |= 1L << (k - 1);
+			previous = c;
+		}
+
+		int length = word.length();
+		if(length < 3) return 0;
+		if(word.charAt(length - 1) == word.charAt(length - 2)) free |= 1L << (length - 1);
+		return free;
+	}
+
+	/*
+	 * Checks if position k of a word is the first position of its letter.
+	 * @param positions		long[]
+	 * @param c				char, letter at position k
+	 * @param k				int
+	 * @return boolean
+	 */
+	private static boolean isFirst(long[] positions, char c, int k) {
+		return (positions[c - 'a'] & ((1L << k) - 1)) == 0;
+	}
+
+}
@@ -0,0 +1,130 @@
+package main.java.kashiish.autotext.autocorrect;
+
+/**
+ * Damerau-Levenshtein's Distance weighted for a keyboard layout (QWERTY unless another
+ * {@link KeyboardLayout} is given), used by the BKTree. Substituting a character with a close key
+ * costs less, typing a letter twice or missing a repeated letter is almost free and swapping two
+ * adjacent characters costs less than two substitutions.
+ *
+ * The distance is computed row by row, keeping only two rows of the table. A row can only be 1
+ * smaller than the row before it (a transposition), so once every value in a row is too large
+ * to come back under the maximum distance, the computation stops.
+ * @author kashish
+ *
+ */
+public class EditDistance {
+
+	/**
+	 * Calculates the edit distance between two words of lowercase letters.
+	 * @param wordA			CharSequence
+	 * @param wordB			CharSequence
+	 * @return int			edit distance between the words
+	 */
+	public static int getDistance(CharSequence wordA, CharSequence wordB) {
+		return getDistance(wordA, wordB, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Calculates the edit distance between two words of lowercase letters, giving up as soon as
+	 * the distance is known to be larger than `max`.
+	 * @param wordA			CharSequence
+	 * @param wordB			CharSequence
+	 * @param max			int, largest distance that needs to be known
+	 * @return int			edit distance between the words, or some value larger than `max`
+	 */
+	public static int getDistance(CharSequence wordA, CharSequence wordB, int max) {
+		return getDistance(wordA, wordB, max, KeyboardLayout.QWERTY);
+	}
+
+	/**
+	 * Calculates the edit distance between two words of lowercase letters typed on a keyboard layout, 
+	 * giving up as soon as the distance is known to be larger than `max`.
+	 * @param wordA			CharSequence
+	 * @param wordB			CharSequence
+	 * @param max			int, largest distance that needs to be known
+	 * @param layout		KeyboardLayout
+	 * @return int			edit distance between the words, or some value larger than `max`
+	 */
+	public static int getDistance(CharSequence wordA, CharSequence wordB, int max, KeyboardLayout layout) {
+		int[] weights = layout.weights;
+		int m = wordA.length();
+		int n = wordB.length();
+
+		if(m == 0 || n == 0) return Math.max(m, n);
+
+		//distances between the first i characters of wordA and the first j characters of wordB
+		int[] previousRow = new int[n + 1];
+		int[] row = new int[n + 1];
+
+		for(int j = 1; j <= n; j++) {
+			previousRow[j] = j + 2;
+		}
+
+		for(int i = 1; i <= m; i++) {
+			char a = wordA.charAt(i - 1);
+			int deleteWeight = samePreviousChar(wordA, i) ? -1 : 1;
+
+			row[0] = i + 2;
+			int rowMinimum = row[0];
+
+			for(int j = 1; j <= n; j++) {
+				char b = wordB.charAt(j - 1);
+
+				if(a == b) {
+					row[j] = previousRow[j - 1];
+				} else {
+					boolean isTransposed = i > 1 && j > 1 && wordA.charAt(i - 2) == b && a == wordB.charAt(j - 2);
+					int substitutionWeight = weights[(isTransposed ? KeyboardLayout.PAIRS : 0) + (a - 'a') * 26 + (b - 'a')];
+
+					/*
+					 * Inserting or deleting a character costs less if it is the same as the character after it.
+					 * Helps decrease the edit distance if a character is typed consecutively or is missing a repeated letter.
+					 * For example "catle" -> "cattle" or "mapple" -> "maple"
+					 */
+					int substitute = previousRow[j - 1] + substitutionWeight;
+					int insert = row[j - 1] + (samePreviousChar(wordB, j) ? -1 : 1);
+					int delete = previousRow[j] + deleteWeight;
+					row[j] = Math.min(substitute, Math.min(insert, delete)) + 1;
+				}
+
+				rowMinimum = Math.min(rowMinimum, row[j]);
+			}
+
+			//each of the remaining rows can lower the distance by at most 1
+			if(rowMinimum - (m - i) > max) return max + 1;
+
+			int[] swap = previousRow;
+			previousRow = row;
+			row = swap;
+		}
+
+		return previousRow[n];
+	}
+
+	/**
+	 * Determines if two keys (lowercase letters) are close to each other on a QWERTY keyboard.
+	 * @param a				char
+	 * @param b				char
+	 * @return boolean
+	 */
+	public static boolean keysAreClose(char a, char b) {
+		return KeyboardLayout.QWERTY.keysAreClose(a, b);
+	}
+
+	/*
+	 * Checks if the previous character before index k in the word is the same as
+	 * the character at index k.
+	 * @param word		CharSequence
+	 * @param k			int, index of current character
+	 * @return boolean
+	 */
+	private static boolean samePreviousChar(CharSequence word, int k) {
+		if(word.length() < 3) return false;
+		if(k == word.length()) {
+			return word.charAt(k - 1) == word.charAt(k - 2);
+		} else {
+			return word.charAt(k) == word.charAt(k - 1);
+		}
+	}
+
+}
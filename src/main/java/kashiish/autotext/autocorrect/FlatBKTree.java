@@ -0,0 +1,267 @@
+package main.java.kashiish.autotext.autocorrect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.PriorityQueue;
+
+import main.java.kashiish.autotext.autocorrect.BKTree.CloseWord;
+
+/**
+ * Read-only BKTree whose nodes are numbered in breadth-first order, so the children of a node are
+ * consecutive and every node except the root is the target of exactly one edge: the edges of node i
+ * lead to nodes childStart(i) + 1 to childStart(i + 1), sorted by their distance from node i. The words
+ * of all the nodes are packed one after the other. A {@link FrozenBKTree} keeps the tree in arrays and
+ * a {@link MappedBKTree} in a mapped buffer; both are searched the same way.
+ * @author kashish
+ *
+ */
+abstract class FlatBKTree implements WordCorrector {
+
+	/* The maximum number of suggestions to return when {@link #getClosestWords(String)} is called. */
+	private int maxSuggestions = 3;
+	/* The number of words in the tree. */
+	int numWords;
+	/* The number of nodes in the tree. */
+	int numNodes;
+	/* Layout the edit distance is weighted for */
+	KeyboardLayout layout = KeyboardLayout.QWERTY;
+
+	/*
+	 * Gets the offset of a node's word among the characters of all the words.
+	 * @param node			int, from 0 to the number of nodes, which gives the end of the last word
+	 * @return int
+	 */
+	abstract int getWordStart(int node);
+
+	/*
+	 * Gets a character of the words.
+	 * @param index			int
+	 * @return char
+	 */
+	abstract char getChar(int index);
+
+	/*
+	 * Gets the index of the first edge of a node.
+	 * @param node			int, from 0 to the number of nodes, which gives the number of edges
+	 * @return int
+	 */
+	abstract int getChildStart(int node);
+
+	/*
+	 * Gets the distance between a node's word and its parent's word.
+	 * @param node			int
+	 * @return int
+	 */
+	abstract int getDistance(int node);
+
+	/*
+	 * Checks if a node's word was removed from the BKTree, so the node only routes the search.
+	 * @param node			int
+	 * @return boolean
+	 */
+	abstract boolean isRemoved(int node);
+
+	@Override
+	public int getNumWords() {
+		return this.numWords;
+	}
+
+	/**
+	 * Sets the maximum number of autocorrected words to return.
+	 * @param matches		int
+	 */
+	@Override
+	public void setMaxMatches(int matches) {
+		this.maxSuggestions = matches;
+	}
+
+	/**
+	 * Gets a list of words from the tree that have the shortest edit distance from
+	 * the input word.
+	 * @param word				String
+	 * @return ArrayList<String>
+	 */
+	@Override
+	public ArrayList<String> getClosestWords(String word) {
+		return getClosestWords(word, new QueryOptions(BKTree.TOLERANCE, maxSuggestions));
+	}
+
+	/**
+	 * Gets a list of words from the tree that have the shortest edit distance from
+	 * the input word, like {@link BKTree#getClosestWords(String, QueryOptions)}.
+	 * @param word				String
+	 * @param options			QueryOptions
+	 * @return ArrayList<String>
+	 */
+	@Override
+	public ArrayList<String> getClosestWords(String word, QueryOptions options) {
+		return BKTree.getClosestWords(getNearestCloseWords(word, options, true));
+	}
+
+	/**
+	 * Gets the `k` words from the tree that are closest to the input word, closest first, like
+	 * {@link BKTree#getNearestWords(String, int)}.
+	 * @param word				String
+	 * @param k					int, the maximum number of words to return
+	 * @return ArrayList<String>
+	 */
+	public ArrayList<String> getNearestWords(String word, int k) {
+		ArrayList<String> words = new ArrayList<String>();
+		for(CloseWord closeWord : getNearestCloseWords(word, new QueryOptions(BKTree.TOLERANCE, k), false)) {
+			words.add(closeWord.word);
+		}
+		return words;
+	}
+
+	/*
+	 * Searches the tree best-first for the `k` words closest to the input word, the same way as the BKTree.
+	 * Candidates are packed into a long, the smallest distance a word in the subtree can have in the
+	 * high bits and the node in the low bits, so they are ordered by bound and then by node.
+	 * @param word					String
+	 * @param options				QueryOptions
+	 * @param closestOnly			boolean, whether only the words with the shortest distance are wanted
+	 * @return ArrayList<CloseWord>	sorted closest first
+	 */
+	private ArrayList<CloseWord> getNearestCloseWords(String word, QueryOptions options, boolean closestOnly) {
+		PriorityQueue<CloseWord> nearest = new PriorityQueue<CloseWord>(Collections.reverseOrder());
+		int k = options.getMaxResults();
+		if(word.equals("") || numWords == 0 || k <= 0) return BKTree.sortNearest(nearest);
+
+		word = BKTree.normalize(word);
+		int tolerance = options.getTolerance(word);
+		NodeWord value = new NodeWord(this);
+		DistanceFilter filter = new DistanceFilter(word, layout);
+
+		LongHeap queue = new LongHeap();
+		queue.add(0L);
+
+		while(!queue.isEmpty()) {
+			long candidate = queue.poll();
+			int candidateBound = (int) (candidate >>> 32);
+			int node = (int) candidate;
+
+			int radius = BKTree.getRadius(nearest, k, closestOnly, tolerance);
+			if(candidateBound > radius) break;
+
+			int first = getChildStart(node) + 1;
+			int last = getChildStart(node + 1);
+			//children are sorted by distance, the last one is the farthest
+			int maxChildDistance = first <= last ? Math.max(0, getDistance(last)) : 0;
+
+			value.set(getWordStart(node), getWordStart(node + 1));
+			int bound = radius + maxChildDistance;
+			if(filter.getLowerBound(value) > bound) continue;
+			int distance = EditDistance.getDistance(word, value, bound, layout);
+			if(distance > bound) continue;
+
+			if(distance <= radius && !isRemoved(node)) {
+				BKTree.addNearest(nearest, new CloseWord(value.toString(), distance), k, closestOnly);
+				radius = BKTree.getRadius(nearest, k, closestOnly, tolerance);
+			}
+
+			//only the children within the radius of `distance` can hold a close enough word
+			int child = first <= last ? lowerBound(first, last + 1, distance - radius) : first;
+			for(; child <= last && getDistance(child) <= distance + radius; child++) {
+				int childBound = Math.max(candidateBound, Math.abs(distance - getDistance(child)));
+				queue.add(((long) childBound << 32) | child);
+			}
+		}
+
+		return BKTree.sortNearest(nearest);
+	}
+
+	/*
+	 * Finds the first child in a range of children whose distance is at least `key`.
+	 * @param from			int, first child
+	 * @param to			int, one past the last child
+	 * @param key			int
+	 * @return int			`to` if every child is closer
+	 */
+	private int lowerBound(int from, int to, int key) {
+		while(from < to) {
+			int middle = (from + to) >>> 1;
+			if(getDistance(middle) < key) from = middle + 1;
+			else to = middle;
+		}
+		return from;
+	}
+
+	/* NodeWord class is a view of one node's word, moved from node to node. */
+	private static class NodeWord implements CharSequence {
+		private final FlatBKTree tree;
+		private int start;
+		private int length;
+
+		public NodeWord(FlatBKTree tree) {
+			this.tree = tree;
+		}
+
+		public void set(int start, int end) {
+			this.start = start;
+			this.length = end - start;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return tree.getChar(start + index);
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			char[] chars = new char[to - from];
+			for(int i = 0; i < chars.length; i++) {
+				chars[i] = charAt(from + i);
+			}
+			return new String(chars);
+		}
+
+		@Override
+		public String toString() {
+			return subSequence(0, length).toString();
+		}
+	}
+
+	/* LongHeap class is a binary min-heap of longs, so candidates are not boxed. */
+	private static class LongHeap {
+		private long[] values = new long[16];
+		private int size = 0;
+
+		public boolean isEmpty() {
+			return size == 0;
+		}
+
+		public void add(long value) {
+			if(size == values.length) values = Arrays.copyOf(values, 2 * size);
+
+			int i = size++;
+			while(i > 0 && values[(i - 1) >>> 1] > value) {
+				values[i] = values[(i - 1) >>> 1];
+				i = (i - 1) >>> 1;
+			}
+			values[i] = value;
+		}
+
+		public long poll() {
+			long result = values[0];
+			long last = values[--size];
+
+			int i = 0;
+			while(2 * i + 1 < size) {
+				int child = 2 * i + 1;
+				if(child + 1 < size && values[child + 1] < values[child]) child++;
+				if(values[child] >= last) break;
+				values[i] = values[child];
+				i = child;
+			}
+			values[i] = last;
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,154 @@
+package main.java.kashiish.autotext.autocorrect;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * Read-only copy of a BKTree laid out in a few flat arrays, for serving corrections. The words of
+ * all the nodes are packed into one char array and the nodes are numbered in breadth-first order,
+ * see {@link FlatBKTree}. A query walks the arrays without hashing or boxing, and only visits the
+ * children whose distance is within the search radius, found by binary search.
+ *
+ * The frozen tree can only be queried, and does not change when the BKTree changes. It is also the
+ * layout a {@link MappedBKTree} is written from, so both give the same results.
+ * @author kashish
+ *
+ */
+public class FrozenBKTree extends FlatBKTree {
+
+	/* Offset of each node's word in `chars`, plus the end of the last word */
+	private int[] wordStart;
+	/* Index of the first edge of each node, plus the number of edges */
+	private int[] childStart;
+	/* Distance between each node's word and its parent's word */
+	private int[] distances;
+	/* Whether each node's word was removed from the BKTree, so the node only routes the search */
+	private boolean[] removed;
+	/* Characters of all the words */
+	private char[] chars;
+
+	/**
+	 * Creates a new FrozenBKTree with the words of a BKTree. The BKTree is not changed. Removed words
+	 * are left out: a removed word that still leads to other words is kept to route the search, but
+	 * is never returned.
+	 * @param bktree		BKTree
+	 */
+	public FrozenBKTree(BKTree bktree) {
+		this.layout = bktree.getLayout();
+
+		//number the nodes in breadth-first order, with children sorted by distance
+		ArrayList<TreeNode> nodes = new ArrayList<TreeNode>();
+		ArrayList<Integer> childCounts = new ArrayList<Integer>();
+		ArrayDeque<TreeNode> queue = new ArrayDeque<TreeNode>();
+		TreeNode root = bktree.getRoot();
+		if(root != null) queue.add(root);
+
+		int length = 0;
+		while(!queue.isEmpty()) {
+			TreeNode node = queue.poll();
+			nodes.add(node);
+			length += node.getValue().length();
+			if(!node.isDeleted()) numWords++;
+
+			ArrayList<Integer> keys = new ArrayList<Integer>(node.getChildren().keySet());
+			Collections.sort(keys);
+			int count = 0;
+			for(Integer key : keys) {
+				TreeNode child = node.getChild(key);
+				//a removed word without children does not lead anywhere
+				if(child.isDeleted() && child.getChildren().isEmpty()) continue;
+				queue.add(child);
+				count++;
+			}
+			childCounts.add(count);
+		}
+
+		this.numNodes = nodes.size();
+		this.wordStart = new int[numNodes + 1];
+		this.childStart = new int[numNodes + 1];
+		this.distances = new int[numNodes];
+		this.removed = new boolean[numNodes];
+		this.chars = new char[length];
+
+		int offset = 0;
+		int edges = 0;
+		for(int i = 0; i < numNodes; i++) {
+			TreeNode node = nodes.get(i);
+			String value = node.getValue();
+
+			wordStart[i] = offset;
+			value.getChars(0, value.length(), chars, offset);
+			offset += value.length();
+
+			childStart[i] = edges;
+			edges += childCounts.get(i);
+
+			if(i > 0) distances[i] = node.getDistanceFromParent();
+			removed[i] = node.isDeleted();
+		}
+		wordStart[numNodes] = offset;
+		childStart[numNodes] = edges;
+	}
+
+	/**
+	 * Gets the keyboard layout the edit distance is weighted for, the layout of the BKTree it was made from.
+	 * @return KeyboardLayout
+	 */
+	public KeyboardLayout getLayout() {
+		return this.layout;
+	}
+
+	/*
+	 * Writes the tree in the format a MappedBKTree is read from.
+	 * @param out			DataOutputStream
+	 * @throws IOException
+	 */
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(numWords);
+		out.writeInt(numNodes);
+		for(int start : wordStart) {
+			out.writeInt(start);
+		}
+		for(int start : childStart) {
+			out.writeInt(start);
+		}
+		for(int distance : distances) {
+			out.writeInt(distance);
+		}
+		for(char c : chars) {
+			out.writeChar(c);
+		}
+		for(boolean isRemoved : removed) {
+			out.writeByte(isRemoved ? 1 : 0);
+		}
+	}
+
+	@Override
+	int getWordStart(int node) {
+		return wordStart[node];
+	}
+
+	@Override
+	char getChar(int index) {
+		return chars[index];
+	}
+
+	@Override
+	int getChildStart(int node) {
+		return childStart[node];
+	}
+
+	@Override
+	int getDistance(int node) {
+		return distances[node];
+	}
+
+	@Override
+	boolean isRemoved(int node) {
+		return removed[node];
+	}
+
+}
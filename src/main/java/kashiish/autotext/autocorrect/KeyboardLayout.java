@@ -0,0 +1,159 @@
+package main.java.kashiish.autotext.autocorrect;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Keyboard layout used by {@link EditDistance} to weigh substitutions: substituting a letter with a
+ * close key costs less. A layout is made of rows of keys, top row first, where each row is shifted
+ * half a key to the right of the row above it. A key is close to the keys next to it in its row and
+ * to the two keys it touches in the rows above and below it.
+ *
+ * The layout is compiled into a flat table of substitution weights for each pair of letters, so the
+ * edit distance looks up a weight with a single array read.
+ * @author kashish
+ *
+ */
+public class KeyboardLayout {
+
+	/* US QWERTY keyboard. */
+	public static final KeyboardLayout QWERTY = new KeyboardLayout("qwertyuiop", "asdfghjkl", "zxcvbnm");
+	/* French AZERTY keyboard, the bottom row starts with the extra '<' key of ISO keyboards. */
+	public static final KeyboardLayout AZERTY = new KeyboardLayout("azertyuiop", "qsdfghjklm", "<wxcvbn");
+	/* Dvorak keyboard. */
+	public static final KeyboardLayout DVORAK = new KeyboardLayout("',.pyfgcrl", "aoeuidhtns", ";qjkxbmwvz");
+
+	/* The number of pairs of letters, the size of each half of {@link #weights}. */
+	static final int PAIRS = 26 * 26;
+
+	/*
+	 * Weights of substituting letter a with letter b, at `(a - 'a') * 26 + (b - 'a')`. The first half
+	 * holds the weights of plain substitutions, the second half the weights of substitutions that are
+	 * part of a transposition.
+	 */
+	final int[] weights = new int[2 * PAIRS];
+
+	/* Rows of keys, top row first */
+	private String[] rows;
+
+	/**
+	 * Creates a new keyboard layout from its rows of keys, top row first. Only the letters a-z are
+	 * weighed, any other character is a key that keeps the letters after it in their place.
+	 * @param rows			String...
+	 */
+	public KeyboardLayout(String... rows) {
+		if(rows.length == 0)
+			throw new IllegalArgumentException("Keyboard layout must have at least one row.");
+
+		this.rows = new String[rows.length];
+		boolean[] seen = new boolean[26];
+		for(int r = 0; r < rows.length; r++) {
+			this.rows[r] = rows[r].toLowerCase();
+			for(char key : this.rows[r].toCharArray()) {
+				if(!isLetter(key)) continue;
+				if(seen[key - 'a'])
+					throw new IllegalArgumentException("Keyboard layout has the key " + key + " twice.");
+				seen[key - 'a'] = true;
+			}
+		}
+
+		boolean[] close = getCloseKeys();
+		for(int pair = 0; pair < PAIRS; pair++) {
+			//a transposition of keys that are not close costs less than one of keys that are close
+			weights[pair] = close[pair] ? 1 : 2;
+			weights[PAIRS + pair] = close[pair] ? 0 : -2;
+		}
+	}
+
+	/**
+	 * Creates a new keyboard layout from a file with one row of keys per line, top row first.
+	 * Blank lines are ignored.
+	 * @param fileName		String
+	 * @return KeyboardLayout
+	 * @throws IOException
+	 */
+	public static KeyboardLayout fromFile(String fileName) throws IOException {
+		ArrayList<String> rows = new ArrayList<String>();
+
+		BufferedReader rd = new BufferedReader(new FileReader(fileName));
+		try {
+			String line;
+			while((line = rd.readLine()) != null) {
+				if(line.trim().length() > 0) rows.add(line.trim());
+			}
+		} finally {
+			rd.close();
+		}
+
+		return new KeyboardLayout(rows.toArray(new String[rows.size()]));
+	}
+
+	/**
+	 * Determines if two keys (lowercase letters) are close to each other on the keyboard.
+	 * @param a				char
+	 * @param b				char
+	 * @return boolean
+	 */
+	public boolean keysAreClose(char a, char b) {
+		return weights[(a - 'a') * 26 + (b - 'a')] == 1;
+	}
+
+	/**
+	 * Gets the rows of keys of the layout, top row first.
+	 * @return String[]
+	 */
+	public String[] getRows() {
+		return this.rows.clone();
+	}
+
+	/*
+	 * Finds the pairs of letters that are close to each other.
+	 * @return boolean[]		indexed like {@link #weights}
+	 */
+	private boolean[] getCloseKeys() {
+		boolean[] close = new boolean[PAIRS];
+
+		for(int r = 0; r < rows.length; r++) {
+			for(int c = 0; c < rows[r].length(); c++) {
+				char key = rows[r].charAt(c);
+				if(!isLetter(key)) continue;
+
+				//key c of a row sits between keys c and c + 1 of the row above it
+				setClose(close, key, r, c - 1);
+				setClose(close, key, r, c + 1);
+				setClose(close, key, r - 1, c);
+				setClose(close, key, r - 1, c + 1);
+				setClose(close, key, r + 1, c - 1);
+				setClose(close, key, r + 1, c);
+			}
+		}
+
+		return close;
+	}
+
+	/*
+	 * Marks a letter as close to the key at a row and column, if there is a letter there.
+	 * @param close			boolean[]
+	 * @param key			char
+	 * @param row			int
+	 * @param column		int
+	 */
+	private void setClose(boolean[] close, char key, int row, int column) {
+		if(row < 0 || row >= rows.length || column < 0 || column >= rows[row].length()) return;
+
+		char other = rows[row].charAt(column);
+		if(isLetter(other)) close[(key - 'a') * 26 + (other - 'a')] = true;
+	}
+
+	/*
+	 * Checks if a key is one of the letters a-z.
+	 * @param key			char
+	 * @return boolean
+	 */
+	private static boolean isLetter(char key) {
+		return key >= 'a' && key <= 'z';
+	}
+
+}
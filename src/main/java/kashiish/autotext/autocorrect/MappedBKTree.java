@@ -0,0 +1,86 @@
+package main.java.kashiish.autotext.autocorrect;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+
+import main.java.kashiish.autotext.SnapshotSection;
+
+/**
+ * Read-only BKTree stored in a section of a snapshot, see {@link main.java.kashiish.autotext.AutoText#writeSnapshot(String)}.
+ * The section holds the arrays of the {@link FrozenBKTree} of the BKTree that was written, and queries
+ * run directly on the mapped buffer the same way, see {@link FlatBKTree}.
+ * @author kashish
+ *
+ */
+public class MappedBKTree extends FlatBKTree {
+
+	/* Offset of each node's word in `chars`, plus the end of the last word */
+	private IntBuffer wordStart;
+	/* Index of the first edge of each node, plus the number of edges */
+	private IntBuffer childStart;
+	/* Distance between each node's word and its parent's word */
+	private IntBuffer distances;
+	/* Characters of all the words */
+	private CharBuffer chars;
+	/* 1 if the node's word was removed from the BKTree, so the node only routes the search, 0 otherwise */
+	private ByteBuffer removed;
+
+	/**
+	 * Creates a new MappedBKTree from a snapshot section written by {@link #write(BKTree, DataOutputStream)}.
+	 * @param section		SnapshotSection
+	 */
+	public MappedBKTree(SnapshotSection section) {
+		this.numWords = section.readInt();
+		this.numNodes = section.readInt();
+		this.wordStart = section.readInts(numNodes + 1);
+		this.childStart = section.readInts(numNodes + 1);
+		this.distances = section.readInts(numNodes);
+		this.chars = section.readChars(wordStart.get(numNodes));
+		this.removed = section.readBytes(numNodes);
+	}
+
+	/**
+	 * Writes a BKTree in the format read by {@link #MappedBKTree(SnapshotSection)}. The BKTree is not
+	 * changed. Removed words are left out like in a {@link FrozenBKTree}: a removed word that still
+	 * leads to other words is written to route the search, but is never returned. Mapped trees are
+	 * searched with the QWERTY layout, so only BKTrees for that layout can be written.
+	 * @param bktree		BKTree
+	 * @param out			DataOutputStream
+	 * @throws IOException
+	 */
+	public static void write(BKTree bktree, DataOutputStream out) throws IOException {
+		if(bktree.getLayout() != KeyboardLayout.QWERTY)
+			throw new IllegalArgumentException("Only BKTrees for the QWERTY layout can be written.");
+
+		new FrozenBKTree(bktree).write(out);
+	}
+
+	@Override
+	int getWordStart(int node) {
+		return wordStart.get(node);
+	}
+
+	@Override
+	char getChar(int index) {
+		return chars.get(index);
+	}
+
+	@Override
+	int getChildStart(int node) {
+		return childStart.get(node);
+	}
+
+	@Override
+	int getDistance(int node) {
+		return distances.get(node);
+	}
+
+	@Override
+	boolean isRemoved(int node) {
+		return removed.get(node) != 0;
+	}
+
+}
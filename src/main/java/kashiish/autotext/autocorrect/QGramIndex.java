@@ -0,0 +1,263 @@
+package main.java.kashiish.autotext.autocorrect;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map.Entry;
+
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.autocorrect.BKTree.CloseWord;
+
+/**
+ * Autocorrect index that buckets words by length and by q-grams, the strings of q characters in a
+ * word (with the start and end of the word marked, "cat" has the 2-grams "$c", "ca", "at" and "t$").
+ * An edit changes at most q + 1 of the q-grams of a word (swapping two characters changes q + 1),
+ * so a word that is a few edits away from the query has about the same length and shares most of
+ * the query's q-grams. Only those candidates are compared with {@link EditDistance}, the closest ones
+ * are returned like {@link BKTree#getClosestWords(String)}.
+ *
+ * Like {@link SymSpell}, the index can miss words that the weighted distance finds close although many
+ * characters differ, for example by repeating letters. Words can not be inserted while other threads
+ * get corrections.
+ * @author kashish
+ *
+ */
+public class QGramIndex implements Autocorrector {
+
+	/* The default length of the q-grams. */
+	public static final int DEFAULT_Q = 2;
+	/* Marks the start and end of a word in its q-grams. */
+	private static final char PAD = '$';
+
+	/* The maximum number of suggestions to return when {@link #getClosestWords(String)} is called. */
+	private int maxSuggestions = 3;
+	/* The length of the q-grams */
+	private int q;
+	/* Words in the index */
+	private HashSet<String> words;
+	/* Words of each length stored under each of their q-grams, indexed by word length */
+	private ArrayList<HashMap<String, ArrayList<String>>> buckets;
+	/* Layout the edit distance of the candidates is weighted for */
+	private KeyboardLayout layout = KeyboardLayout.QWERTY;
+
+	/**
+	 * Creates a new q-gram index with 2-grams.
+	 * @param lexicon		Lexicon, words to add to the index
+	 * @throws IOException
+	 */
+	public QGramIndex(Lexicon lexicon) throws IOException {
+		this(lexicon, DEFAULT_Q);
+	}
+
+	/**
+	 * Creates a new q-gram index with 2-grams and specified file of words to add to the index.
+	 * @param fileName		String
+	 * @throws IOException
+	 */
+	public QGramIndex(String fileName) throws IOException {
+		this(new Lexicon(fileName));
+	}
+
+	/**
+	 * Creates a new q-gram index.
+	 * @param lexicon		Lexicon, words to add to the index
+	 * @param q				int, the length of the q-grams
+	 * @throws IOException
+	 */
+	public QGramIndex(Lexicon lexicon, int q) throws IOException {
+		if(q <= 0)
+			throw new IllegalArgumentException("Length of the q-grams must be positive.");
+
+		this.q = q;
+		this.words = new HashSet<String>();
+		this.buckets = new ArrayList<HashMap<String, ArrayList<String>>>();
+		createTree(lexicon);
+	}
+
+	/**
+	 * Inserts a new word into the index. A word that is already in the index is ignored.
+	 * @param word		String
+	 */
+	@Override
+	public void insertWord(String word) {
+
+		if(word == null || word.length() == 0)
+			throw new IllegalArgumentException("String is not valid.");
+
+		word = BKTree.normalize(word);
+		if(word.length() == 0 || !words.add(word)) return;
+
+		while(buckets.size() <= word.length()) {
+			buckets.add(new HashMap<String, ArrayList<String>>());
+		}
+
+		HashMap<String, ArrayList<String>> bucket = buckets.get(word.length());
+		for(String gram : getGrams(word)) {
+			ArrayList<String> list = bucket.get(gram);
+			if(list == null) {
+				list = new ArrayList<String>(1);
+				bucket.put(gram, list);
+			}
+			list.add(word);
+		}
+	}
+
+	/**
+	 * Removes a word from the index.
+	 * @param word			String
+	 * @return boolean		true if the word was in the index
+	 */
+	@Override
+	public boolean removeWord(String word) {
+
+		if(word == null || word.length() == 0)
+			throw new IllegalArgumentException("String is not valid.");
+
+		word = BKTree.normalize(word);
+		if(!words.remove(word)) return false;
+
+		HashMap<String, ArrayList<String>> bucket = buckets.get(word.length());
+		for(String gram : getGrams(word)) {
+			ArrayList<String> list = bucket.get(gram);
+			list.remove(word);
+			if(list.isEmpty()) bucket.remove(gram);
+		}
+		return true;
+	}
+
+	@Override
+	public int getNumWords() {
+		return this.words.size();
+	}
+
+	/**
+	 * Sets the keyboard layout the edit distance of the candidates is weighted for. The q-grams do not
+	 * depend on the layout, so it can be changed at any time.
+	 * @param layout		KeyboardLayout
+	 */
+	public void setLayout(KeyboardLayout layout) {
+		this.layout = layout;
+	}
+
+	/**
+	 * Sets the maximum number of autocorrected words to return.
+	 * @param matches		int
+	 */
+	@Override
+	public void setMaxMatches(int matches) {
+		this.maxSuggestions = matches;
+	}
+
+	/**
+	 * Gets a list of words from the index that have the shortest edit distance from
+	 * the input word.
+	 * @param word				String
+	 * @return ArrayList<String>
+	 */
+	@Override
+	public ArrayList<String> getClosestWords(String word) {
+		return getClosestWords(word, new QueryOptions(BKTree.TOLERANCE, maxSuggestions));
+	}
+
+	/**
+	 * Gets a list of words from the index that have the shortest edit distance from the input
+	 * word, keeping the candidates within the options' tolerance for the word. The tolerance also
+	 * sets how many edits a candidate can be away from the word, see {@link #getMaxEdits(int)}.
+	 * @param word				String
+	 * @param options			QueryOptions
+	 * @return ArrayList<String>
+	 */
+	@Override
+	public ArrayList<String> getClosestWords(String word, QueryOptions options) {
+		HashSet<CloseWord> closeWords = new HashSet<CloseWord>();
+		word = BKTree.normalize(word);
+		if(word.length() == 0) return BKTree.getClosestWords(closeWords, options.getMaxResults());
+
+		int tolerance = options.getTolerance(word);
+		DistanceFilter filter = new DistanceFilter(word, layout);
+
+		for(String candidate : getCandidates(word, getMaxEdits(tolerance))) {
+			if(filter.getLowerBound(candidate) > tolerance) continue;
+
+			int distance = EditDistance.getDistance(word, candidate, tolerance, layout);
+			if(distance <= tolerance) closeWords.add(new CloseWord(candidate, distance));
+		}
+
+		return BKTree.getClosestWords(closeWords, options.getMaxResults());
+	}
+
+	/**
+	 * Gets the words whose length is within `maxEdits` of the length of the word and that share enough
+	 * q-grams with the word to be `maxEdits` edits away from it: each edit changes at most q + 1 of 
+	 * the word's q-grams.
+	 * @param word				String, normalized word
+	 * @param maxEdits			int
+	 * @return ArrayList<String>
+	 */
+	public ArrayList<String> getCandidates(String word, int maxEdits) {
+		HashSet<String> grams = getGrams(word);
+		int minShared = Math.max(1, grams.size() - (q + 1) * maxEdits);
+
+		//the number of q-grams each word shares with the input word
+		HashMap<String, int[]> shared = new HashMap<String, int[]>();
+
+		int maxLength = Math.min(buckets.size() - 1, word.length() + maxEdits);
+		for(int length = Math.max(1, word.length() - maxEdits); length <= maxLength; length++) {
+			HashMap<String, ArrayList<String>> bucket = buckets.get(length);
+
+			for(String gram : grams) {
+				ArrayList<String> list = bucket.get(gram);
+				if(list == null) continue;
+
+				for(String candidate : list) {
+					int[] count = shared.get(candidate);
+					if(count == null) {
+						count = new int[1];
+						shared.put(candidate, count);
+					}
+					count[0]++;
+				}
+			}
+		}
+
+		ArrayList<String> candidates = new ArrayList<String>();
+		for(Entry<String, int[]> entry : shared.entrySet()) {
+			if(entry.getValue()[0] >= minShared) candidates.add(entry.getKey());
+		}
+		return candidates;
+	}
+
+	/**
+	 * Gets the number of edits a word within a tolerance can be away from the query. A substitution,
+	 * insertion or deletion costs about 2, so a tolerance of 3 allows 2 edits if one of them is cheap.
+	 * @param tolerance			int
+	 * @return int
+	 */
+	public static int getMaxEdits(int tolerance) {
+		return Math.max(0, (tolerance + 1) / 2);
+	}
+
+	/*
+	 * Gets the q-grams of a word, with the start and end of the word marked.
+	 * @param word				String
+	 * @return HashSet<String>
+	 */
+	private HashSet<String> getGrams(String word) {
+		StringBuilder padded = new StringBuilder();
+		for(int i = 1; i < q; i++) {
+			padded.append(PAD);
+		}
+		padded.append(word);
+		for(int i = 1; i < q; i++) {
+			padded.append(PAD);
+		}
+
+		HashSet<String> grams = new HashSet<String>();
+		for(int i = 0; i + q <= padded.length(); i++) {
+			grams.add(padded.substring(i, i + q));
+		}
+		return grams;
+	}
+
+}
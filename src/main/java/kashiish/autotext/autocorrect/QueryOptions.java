@@ -0,0 +1,79 @@
+package main.java.kashiish.autotext.autocorrect;
+
+/**
+ * Options for a single autocorrect query: how far from the word to search and how many words
+ * to return. The tolerance can depend on the length of the word, so short words, which have
+ * many neighbors, are searched with a small radius and long words with a larger one.
+ * @author kashish
+ *
+ */
+public class QueryOptions {
+
+	/*
+	 * Searches 2 edits around words of up to 4 letters, 3 around words of up to 8 letters and 4
+	 * around longer words. A single typo costs 2 or 3.
+	 */
+	public static final TolerancePolicy LENGTH_ADAPTIVE = new TolerancePolicy() {
+		@Override
+		public int getTolerance(int length) {
+			if(length <= 4) return 2;
+			if(length <= 8) return 3;
+			return 4;
+		}
+	};
+
+	/* Chooses the tolerance of each word */
+	private TolerancePolicy tolerancePolicy;
+	/* The maximum number of words to return */
+	private int maxResults;
+
+	/**
+	 * Creates new QueryOptions with the same tolerance for every word.
+	 * @param tolerance			int, the maximum edit distance of a correction
+	 * @param maxResults		int, the maximum number of words to return
+	 */
+	public QueryOptions(final int tolerance, int maxResults) {
+		this(new TolerancePolicy() {
+			@Override
+			public int getTolerance(int length) {
+				return tolerance;
+			}
+		}, maxResults);
+
+		if(tolerance < 0)
+			throw new IllegalArgumentException("Tolerance must not be negative.");
+	}
+
+	/**
+	 * Creates new QueryOptions with a tolerance that depends on the word, for example {@link #LENGTH_ADAPTIVE}.
+	 * @param tolerancePolicy	TolerancePolicy
+	 * @param maxResults		int, the maximum number of words to return
+	 */
+	public QueryOptions(TolerancePolicy tolerancePolicy, int maxResults) {
+		if(tolerancePolicy == null)
+			throw new IllegalArgumentException("Tolerance policy must not be null.");
+		if(maxResults < 0)
+			throw new IllegalArgumentException("Number of results must not be negative.");
+
+		this.tolerancePolicy = tolerancePolicy;
+		this.maxResults = maxResults;
+	}
+
+	/**
+	 * Gets the tolerance for a normalized word.
+	 * @param word			String
+	 * @return int
+	 */
+	public int getTolerance(String word) {
+		return tolerancePolicy.getTolerance(word.length());
+	}
+
+	public TolerancePolicy getTolerancePolicy() {
+		return this.tolerancePolicy;
+	}
+
+	public int getMaxResults() {
+		return this.maxResults;
+	}
+
+}
@@ -0,0 +1,233 @@
+package main.java.kashiish.autotext.autocorrect;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.autocorrect.BKTree.CloseWord;
+
+/**
+ * Autocorrect index based on symmetric deletes (SymSpell). Every word is stored under each string
+ * that can be made by deleting up to `maxDeletes` of its characters. The words close to a query are
+ * found by looking up the deletes of the query, so only a handful of candidates are compared with
+ * {@link EditDistance}, no matter how many words there are. Candidates further than the tolerance
+ * are dropped, the closest ones are returned like {@link BKTree#getClosestWords(String)}.
+ *
+ * Memory is traded for speed with two settings: more deletes find words with more edits, and
+ * only the first `prefixLength` characters of a word are used to make its deletes.
+ * Words can not be inserted while other threads get corrections.
+ * @author kashish
+ *
+ */
+public class SymSpell implements Autocorrector {
+
+	/* The default number of characters that are deleted from a word to index it. */
+	public static final int DEFAULT_MAX_DELETES = 2;
+	/* The default number of characters at the start of a word that are used to index it. */
+	public static final int DEFAULT_PREFIX_LENGTH = 7;
+
+	/* The maximum number of suggestions to return when {@link #getClosestWords(String)} is called. */
+	private int maxSuggestions = 3;
+	/* The maximum number of characters deleted from a word */
+	private int maxDeletes;
+	/* The number of characters at the start of a word used to make its deletes */
+	private int prefixLength;
+	/* Words in the index */
+	private HashSet<String> words;
+	/* Words stored under each of their deletes (including the unchanged prefix) */
+	private HashMap<String, ArrayList<String>> deletes;
+	/* Layout the edit distance of the candidates is weighted for */
+	private KeyboardLayout layout = KeyboardLayout.QWERTY;
+
+	/**
+	 * Creates a new SymSpell index with the default settings.
+	 * @param lexicon		Lexicon, words to add to the index
+	 * @throws IOException
+	 */
+	public SymSpell(Lexicon lexicon) throws IOException {
+		this(lexicon, DEFAULT_MAX_DELETES, DEFAULT_PREFIX_LENGTH);
+	}
+
+	/**
+	 * Creates a new SymSpell index with the default settings and specified file of words to add to the index.
+	 * @param fileName		String
+	 * @throws IOException
+	 */
+	public SymSpell(String fileName) throws IOException {
+		this(new Lexicon(fileName));
+	}
+
+	/**
+	 * Creates a new SymSpell index.
+	 * @param lexicon		Lexicon, words to add to the index
+	 * @param maxDeletes	int, the maximum number of characters deleted from a word
+	 * @param prefixLength	int, the number of characters at the start of a word used to index it
+	 * @throws IOException
+	 */
+	public SymSpell(Lexicon lexicon, int maxDeletes, int prefixLength) throws IOException {
+		if(maxDeletes < 0)
+			throw new IllegalArgumentException("Number of deletes must not be negative.");
+		if(prefixLength <= maxDeletes)
+			throw new IllegalArgumentException("Prefix length must be greater than the number of deletes.");
+
+		this.maxDeletes = maxDeletes;
+		this.prefixLength = prefixLength;
+		this.words = new HashSet<String>();
+		this.deletes = new HashMap<String, ArrayList<String>>();
+		createTree(lexicon);
+	}
+
+	/**
+	 * Inserts a new word into the index. A word that is already in the index is ignored.
+	 * @param word		String
+	 */
+	@Override
+	public void insertWord(String word) {
+
+		if(word == null || word.length() == 0)
+			throw new IllegalArgumentException("String is not valid.");
+
+		word = BKTree.normalize(word);
+		if(word.length() == 0 || !words.add(word)) return;
+
+		for(String delete : getDeletes(word)) {
+			ArrayList<String> list = deletes.get(delete);
+			if(list == null) {
+				list = new ArrayList<String>(1);
+				deletes.put(delete, list);
+			}
+			list.add(word);
+		}
+	}
+
+	/**
+	 * Removes a word from the index.
+	 * @param word			String
+	 * @return boolean		true if the word was in the index
+	 */
+	@Override
+	public boolean removeWord(String word) {
+
+		if(word == null || word.length() == 0)
+			throw new IllegalArgumentException("String is not valid.");
+
+		word = BKTree.normalize(word);
+		if(!words.remove(word)) return false;
+
+		for(String delete : getDeletes(word)) {
+			ArrayList<String> list = deletes.get(delete);
+			list.remove(word);
+			if(list.isEmpty()) deletes.remove(delete);
+		}
+		return true;
+	}
+
+	@Override
+	public int getNumWords() {
+		return this.words.size();
+	}
+
+	/**
+	 * Returns the number of deletes stored in the index, which is what most of its memory is used for.
+	 * @return int
+	 */
+	public int getNumDeletes() {
+		return this.deletes.size();
+	}
+
+	/**
+	 * Sets the keyboard layout the edit distance of the candidates is weighted for. The deletes do not
+	 * depend on the layout, so it can be changed at any time.
+	 * @param layout		KeyboardLayout
+	 */
+	public void setLayout(KeyboardLayout layout) {
+		this.layout = layout;
+	}
+
+	/**
+	 * Sets the maximum number of autocorrected words to return.
+	 * @param matches		int
+	 */
+	@Override
+	public void setMaxMatches(int matches) {
+		this.maxSuggestions = matches;
+	}
+
+	/**
+	 * Gets a list of words from the index that have the shortest edit distance from
+	 * the input word.
+	 * @param word				String
+	 * @return ArrayList<String>
+	 */
+	@Override
+	public ArrayList<String> getClosestWords(String word) {
+		return getClosestWords(word, new QueryOptions(BKTree.TOLERANCE, maxSuggestions));
+	}
+
+	/**
+	 * Gets a list of words from the index that have the shortest edit distance from the input
+	 * word, keeping the candidates within the options' tolerance for the word. Candidates are 
+	 * still only found through the deletes of the index.
+	 * @param word				String
+	 * @param options			QueryOptions
+	 * @return ArrayList<String>
+	 */
+	@Override
+	public ArrayList<String> getClosestWords(String word, QueryOptions options) {
+		HashSet<CloseWord> closeWords = new HashSet<CloseWord>();
+		word = BKTree.normalize(word);
+		if(word.length() == 0) return BKTree.getClosestWords(closeWords, options.getMaxResults());
+
+		int tolerance = options.getTolerance(word);
+
+		HashSet<String> candidates = new HashSet<String>();
+		for(String delete : getDeletes(word)) {
+			ArrayList<String> list = deletes.get(delete);
+			if(list == null) continue;
+
+			for(String candidate : list) {
+				if(!candidates.add(candidate)) continue;
+
+				int distance = EditDistance.getDistance(word, candidate, tolerance, layout);
+				if(distance <= tolerance) closeWords.add(new CloseWord(candidate, distance));
+			}
+		}
+
+		return BKTree.getClosestWords(closeWords, options.getMaxResults());
+	}
+
+	/*
+	 * Gets the strings made by deleting up to `maxDeletes` characters from the start of the word,
+	 * including the start of the word itself. Deletes are made one level at a time, so each one
+	 * is expanded from the fewest deletions it can be reached with.
+	 * @param word				String, normalized word
+	 * @return HashSet<String>
+	 */
+	private HashSet<String> getDeletes(String word) {
+		if(word.length() > prefixLength) word = word.substring(0, prefixLength);
+
+		HashSet<String> result = new HashSet<String>();
+		result.add(word);
+
+		ArrayList<String> level = new ArrayList<String>();
+		level.add(word);
+		for(int distance = 0; distance < maxDeletes; distance++) {
+			ArrayList<String> next = new ArrayList<String>();
+			for(String current : level) {
+				//an empty delete would match every short word
+				if(current.length() == 1) continue;
+
+				for(int i = 0; i < current.length(); i++) {
+					String delete = current.substring(0, i) + current.substring(i + 1);
+					if(result.add(delete)) next.add(delete);
+				}
+			}
+			level = next;
+		}
+
+		return result;
+	}
+
+}
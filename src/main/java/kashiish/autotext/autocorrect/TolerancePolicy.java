@@ -0,0 +1,17 @@
+package main.java.kashiish.autotext.autocorrect;
+
+/**
+ * Chooses how far from a word to search for corrections, see {@link QueryOptions}.
+ * @author kashish
+ *
+ */
+public interface TolerancePolicy {
+
+	/**
+	 * Gets the maximum edit distance of a correction for a word of the given length.
+	 * @param length		int, length of the word (letters only)
+	 * @return int
+	 */
+	int getTolerance(int length);
+
+}
@@ -17,6 +17,10 @@ public class TreeNode implements Node<String, TreeNode, Integer> {
 	private Integer distance;
 	/* Collection of TrieNode's children */
 	private HashMap<Integer, TreeNode> children; 
+	/* The largest edit distance of a child from this node, 0 if there are no children */
+	private int maxChildDistance = 0;
+	/* Whether the word was removed; the node stays in the tree until the tree is compacted */
+	private boolean deleted = false;
 	
 	/** 
 	 * Creates a new TreeNode object with specified string. 
@@ -38,9 +42,46 @@ public class TreeNode implements Node<String, TreeNode, Integer> {
 		this.children = new HashMap<Integer, TreeNode>();
 	}
 	
+	/**
+	 * Creates a copy of a TreeNode, with its own collection of children.
+	 * @param other		TreeNode
+	 */
+	public TreeNode(TreeNode other) {
+		this.value = other.value;
+		this.distance = other.distance;
+		this.children = new HashMap<Integer, TreeNode>(other.children);
+		this.maxChildDistance = other.maxChildDistance;
+		this.deleted = other.deleted;
+	}
+	
 	public int getDistanceFromParent() {
 		return this.distance;
 	}
+	
+	/**
+	 * Returns the largest edit distance of a child from this TreeNode (0 if there are no children).
+	 * Removing children does not lower it.
+	 * @return int
+	 */
+	public int getMaxChildDistance() {
+		return this.maxChildDistance;
+	}
+	
+	/**
+	 * Returns whether or not the TreeNode's word was removed.
+	 * @return boolean
+	 */
+	public boolean isDeleted() {
+		return this.deleted;
+	}
+	
+	/**
+	 * Marks the TreeNode's word as removed or not.
+	 * @param deleted		boolean
+	 */
+	public void setDeleted(boolean deleted) {
+		this.deleted = deleted;
+	}
 
 
 	/**
@@ -79,6 +120,7 @@ public class TreeNode implements Node<String, TreeNode, Integer> {
 	@Override
 	public void addChild(TreeNode child) {
 		this.children.put(child.getDistanceFromParent(), child);
+		this.maxChildDistance = Math.max(this.maxChildDistance, child.getDistanceFromParent());
 		
 	}
 	
@@ -0,0 +1,41 @@
+package main.java.kashiish.autotext.autocorrect;
+
+import java.util.ArrayList;
+
+/**
+ * Words that can suggest corrections for a misspelled word, but can only be queried, like a 
+ * {@link FrozenBKTree}. An {@link Autocorrector} can also be changed.
+ * @author kashish
+ *
+ */
+public interface WordCorrector {
+
+	/**
+	 * Gets a list of words that have the shortest edit distance from the input word.
+	 * @param word					String
+	 * @return ArrayList<String>
+	 */
+	ArrayList<String> getClosestWords(String word);
+	
+	/**
+	 * Gets a list of words that have the shortest edit distance from the input word, with the 
+	 * tolerance and number of results of the query options.
+	 * @param word					String
+	 * @param options				QueryOptions
+	 * @return ArrayList<String>
+	 */
+	ArrayList<String> getClosestWords(String word, QueryOptions options);
+	
+	/**
+	 * Sets the maximum number of words {@link #getClosestWords(String)} returns.
+	 * @param matches				int
+	 */
+	void setMaxMatches(int matches);
+	
+	/**
+	 * Returns the number of words.
+	 * @return int
+	 */
+	int getNumWords();
+
+}
@@ -0,0 +1,96 @@
+package test.java.kashiish.autotext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.autocorrect.Autocorrector;
+import main.java.kashiish.autotext.autocorrect.BKTree;
+import main.java.kashiish.autotext.autocorrect.QGramIndex;
+import main.java.kashiish.autotext.autocorrect.SymSpell;
+
+/**
+ * Compares the autocorrect indexes on random typos (one substitution, insertion, deletion or
+ * transposition) of the words of a lexicon. Run with the words file to use (defaults to the
+ * test words):
+ *
+ * java test.java.kashiish.autotext.BenchmarkAutocorrect [words file]
+ *
+ * Prints the time per query of each index and how often it gives the same corrections as the
+ * BKTree walk.
+ * @author kashish
+ *
+ */
+public class BenchmarkAutocorrect {
+
+	private static final int QUERIES = 2000;
+	private static final int ROUNDS = 10;
+
+	public static void main(String[] args) throws IOException {
+		String fileName = args.length > 0 ? args[0] : "src/test/resources/test_words_bk.txt";
+		Lexicon lexicon = new Lexicon(fileName);
+
+		BKTree bktree = new BKTree(lexicon);
+		Autocorrector[] indexes = {bktree, new SymSpell(lexicon), new QGramIndex(lexicon)};
+		String[] typos = getTypos(lexicon, new Random(42));
+
+		ArrayList<HashSet<String>> expected = new ArrayList<HashSet<String>>();
+		for(String typo : typos) {
+			expected.add(new HashSet<String>(bktree.getClosestWords(typo)));
+		}
+
+		for(Autocorrector index : indexes) {
+			long best = Long.MAX_VALUE;
+			for(int round = 0; round < ROUNDS; round++) {
+				long start = System.nanoTime();
+				for(String typo : typos) {
+					index.getClosestWords(typo);
+				}
+				best = Math.min(best, System.nanoTime() - start);
+			}
+
+			int same = 0;
+			for(int i = 0; i < typos.length; i++) {
+				if(expected.get(i).equals(new HashSet<String>(index.getClosestWords(typos[i])))) same++;
+			}
+
+			System.out.printf("%-12s %8.1f us/query, same as BKTree %5.1f%%%n", index.getClass().getSimpleName(),
+					best / 1000.0 / typos.length, 100.0 * same / typos.length);
+		}
+	}
+
+	/*
+	 * Makes a typo of random words of the lexicon.
+	 * @param lexicon			Lexicon
+	 * @param random			Random
+	 * @return String[]
+	 */
+	private static String[] getTypos(Lexicon lexicon, Random random) {
+		ArrayList<String> words = new ArrayList<String>();
+		for(String word : lexicon.getLexicon()) {
+			if(word.matches("[a-z]{3,}")) words.add(word);
+		}
+
+		String[] typos = new String[QUERIES];
+		for(int i = 0; i < typos.length; i++) {
+			StringBuilder typo = new StringBuilder(words.get(random.nextInt(words.size())));
+			int k = random.nextInt(typo.length() - 1);
+			char c = (char) ('a' + random.nextInt(26));
+
+			switch(random.nextInt(4)) {
+				case 0: typo.setCharAt(k, c); break;
+				case 1: typo.insert(k, c); break;
+				case 2: typo.deleteCharAt(k); break;
+				default:
+					char swapped = typo.charAt(k);
+					typo.setCharAt(k, typo.charAt(k + 1));
+					typo.setCharAt(k + 1, swapped);
+			}
+			typos[i] = typo.toString();
+		}
+		return typos;
+	}
+
+}
@@ -0,0 +1,63 @@
+package test.java.kashiish.autotext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import main.java.kashiish.autotext.autocomplete.Trie;
+
+/**
+ * Measures the bytes allocated by {@link Trie#getWordsWithPrefix(String)}. Run with the
+ * words file to use (defaults to the test words):
+ *
+ * java test.java.kashiish.autotext.BenchmarkTrieAllocation [words file]
+ *
+ * Each prefix is queried with no limit on the number of matches, so the whole subtree of the
+ * prefix is enumerated.
+ * @author kashish
+ *
+ */
+public class BenchmarkTrieAllocation {
+
+	private static final String[] PREFIXES = {"a", "b", "c", "co", "con", "d", "e", "f", "in", "p", "pre", "re", "s", "st", "t", "th", "w"};
+	private static final int WARMUP_ROUNDS = 2000;
+	private static final int ROUNDS = 2000;
+
+	public static void main(String[] args) throws IOException {
+		String fileName = args.length > 0 ? args[0] : "src/test/resources/test_words_trie.txt";
+		Trie trie = new Trie(fileName);
+		trie.setMaxMatches(Integer.MAX_VALUE);
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+
+		long words = run(trie, WARMUP_ROUNDS);
+
+		long bytes = threads.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+		words = run(trie, ROUNDS);
+		long time = System.nanoTime() - start;
+		bytes = threads.getThreadAllocatedBytes(thread) - bytes;
+
+		long queries = (long) ROUNDS * PREFIXES.length;
+		System.out.printf("%d queries, %d words%n", queries, words);
+		System.out.printf("%.0f bytes/query, %.1f bytes/word, %.1f us/query%n",
+				(double) bytes / queries, (double) bytes / words, time / 1000.0 / queries);
+	}
+
+	/*
+	 * Queries every prefix `rounds` times.
+	 * @param trie			Trie
+	 * @param rounds		int
+	 * @return long			the number of words found
+	 */
+	private static long run(Trie trie, int rounds) {
+		long words = 0;
+		for(int i = 0; i < rounds; i++) {
+			for(String prefix : PREFIXES) {
+				words += trie.getWordsWithPrefix(prefix).size();
+			}
+		}
+		return words;
+	}
+
+}
@@ -0,0 +1,77 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import main.java.kashiish.autotext.autocomplete.ArrayTrie;
+import main.java.kashiish.autotext.autocomplete.Trie;
+
+
+public class TestArrayTrie {
+
+	@Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+	private ArrayTrie trie;
+
+	@Before
+	public void setUpTrie() throws IOException {
+		trie = new ArrayTrie("src/test/resources/test_words_trie.txt");
+	}
+
+	@Test
+	public void testTrieCreation() {
+		//the number of words in test_words.txt is 3836
+		assertEquals(3836, trie.getNumWords());
+	}
+
+	@Test
+	public void testInvalidInsertions() {
+		thrown.expect(IllegalArgumentException.class);
+		trie.insertWord(null);
+		trie.insertWord("");
+	}
+
+	@Test
+	public void testPrefixSuggestions() {
+		testPrefixSuggestions("wri", new String[]{"wrist", "write", "write back", "write down", "writer", "writing", "written"});
+		testPrefixSuggestions("give ", new String[]{"give away", "give back", "give in", "give off", "give out", "give up"});
+		testPrefixSuggestions("z", new String[]{"zero", "zone"});
+		testPrefixSuggestions("qqq", new String[]{});
+	}
+
+	@Test
+	public void testAlphabeticalOrder() {
+		assertEquals(Arrays.asList("far", "farm", "farmer", "farming", "farther", "farthest"), trie.getWordsWithPrefix("far"));
+	}
+
+	@Test
+	public void testSameWordsAsTrie() throws IOException {
+		Trie reference = new Trie("src/test/resources/test_words_trie.txt");
+		reference.setMaxMatches(Integer.MAX_VALUE);
+		trie.setMaxMatches(Integer.MAX_VALUE);
+		trie.trimToSize();
+		for(String prefix : new String[]{"a", "con", "re", "th", "under"}) {
+			assertEquals(new HashSet<>(reference.getWordsWithPrefix(prefix)), new HashSet<>(trie.getWordsWithPrefix(prefix)));
+		}
+	}
+
+	@Test
+	public void testMaxResults() {
+		trie.setMaxMatches(6);
+		assertEquals(6, trie.getWordsWithPrefix("b").size());
+	}
+
+	private void testPrefixSuggestions(String prefix, String[] expected) {
+		assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(trie.getWordsWithPrefix(prefix)));
+	}
+
+}
@@ -0,0 +1,99 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import main.java.kashiish.autotext.AutoText;
+import main.java.kashiish.autotext.Correction;
+
+
+public class TestAutoText {
+	
+	private AutoText autotext;
+	
+	@Before
+	public void setUpAutoText() throws IOException {
+		autotext = new AutoText("src/test/resources/test_words_bk.txt");
+	}
+	
+	@Test
+	public void testCorrectAll() {
+		List<String> words = Arrays.asList("recieve", "where", null, "whre", "", "recieve", "xkcdqj");
+		ArrayList<Correction> corrections = autotext.correctAll(words);
+		
+		//valid words, skipped words and words without corrections are left out
+		assertEquals(3, corrections.size());
+		assertCorrection(corrections.get(0), "recieve", 0, -1);
+		assertCorrection(corrections.get(1), "whre", 3, -1);
+		assertCorrection(corrections.get(2), "recieve", 5, -1);
+		assertEquals(-1, corrections.get(0).getEnd());
+		
+		assertTrue(autotext.correctAll(new ArrayList<String>()).isEmpty());
+	}
+	
+	@Test
+	public void testCorrectText() {
+		String text = "i don't recieve mail whre i live, recieve?";
+		ArrayList<Correction> corrections = autotext.correctText(text);
+		
+		//apostrophes between letters are part of a word, other punctuation is not
+		assertEquals(4, corrections.size());
+		assertCorrection(corrections.get(0), "don't", 1, 2);
+		assertCorrection(corrections.get(1), "recieve", 2, 8);
+		assertCorrection(corrections.get(2), "whre", 4, 21);
+		assertCorrection(corrections.get(3), "recieve", 7, 34);
+		assertEquals(41, corrections.get(3).getEnd());
+		assertEquals(Arrays.asList("receive"), corrections.get(3).getCorrections());
+		
+		assertTrue(autotext.correctText(" ,. where'").isEmpty());
+	}
+	
+	@Test
+	public void testSameAsAutocorrect() throws InterruptedException {
+		List<String> words = Arrays.asList("recieve", "gogle", "amazin", "whre", "teh", "gogle", "januray", "there");
+		
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		autotext.setExecutor(executor);
+		ArrayList<Correction> parallel = autotext.correctAll(words);
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		
+		autotext.setExecutor(null);
+		autotext.setCache(100, 1, TimeUnit.MINUTES);
+		ArrayList<Correction> sequential = autotext.correctAll(words);
+		
+		for(ArrayList<Correction> corrections : Arrays.asList(parallel, sequential)) {
+			int k = 0;
+			for(int i = 0; i < words.size(); i++) {
+				ArrayList<String> expected = autotext.autocorrect(words.get(i));
+				if(expected == null) continue;
+				
+				Correction correction = corrections.get(k++);
+				assertEquals(i, correction.getIndex());
+				assertEquals(expected, correction.getCorrections());
+			}
+			assertEquals(k, corrections.size());
+		}
+		
+		//repeated words are searched for once
+		assertEquals(6, autotext.getCorrectionCache().getMisses());
+	}
+	
+	private void assertCorrection(Correction correction, String word, int index, int start) {
+		assertEquals(word, correction.getWord());
+		assertEquals(index, correction.getIndex());
+		assertEquals(start, correction.getStart());
+		assertFalse(correction.getCorrections().isEmpty());
+	}
+
+}
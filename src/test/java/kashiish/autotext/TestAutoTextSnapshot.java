@@ -0,0 +1,174 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import main.java.kashiish.autotext.AutoText;
+import main.java.kashiish.autotext.CompactLexicon;
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.autocorrect.QueryOptions;
+import main.java.kashiish.autotext.autocorrect.SymSpell;
+
+
+public class TestAutoTextSnapshot {
+
+	@Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+	private Lexicon lexicon;
+	private AutoText autotext;
+	private AutoText snapshot;
+
+	@Before
+	public void setUpSnapshot() throws IOException {
+		lexicon = new Lexicon("src/test/resources/test_words_bk.txt");
+		autotext = new AutoText("src/test/resources/test_words_bk.txt");
+		snapshot = writeAndOpen(autotext);
+	}
+
+	@Test
+	public void testLexicon() {
+		for(String word : lexicon.getLexicon()) {
+			assertTrue(snapshot.isValidWord(word));
+		}
+		assertFalse(snapshot.isValidWord("recieve"));
+		assertFalse(snapshot.isValidWord(""));
+		assertFalse(snapshot.isValidWord(null));
+	}
+
+	@Test
+	public void testAutocomplete() {
+		autotext.setMaxSuggestions(Integer.MAX_VALUE);
+		snapshot.setMaxSuggestions(Integer.MAX_VALUE);
+		for(String prefix : new String[]{"a", "con", "re", "th", "zz"}) {
+			assertEquals(toSet(autotext.autocomplete(prefix)), toSet(snapshot.autocomplete(prefix)));
+		}
+	}
+
+	@Test
+	public void testRankedAutocomplete() throws IOException {
+		AutoText ranked = new AutoText("src/test/resources/test_words_weighted.txt");
+		AutoText mapped = writeAndOpen(ranked);
+
+		//ranked completions keep their order, also when more words are wanted than each node caches
+		for(int matches : new int[]{3, 10, 1000}) {
+			ranked.setMaxSuggestions(matches);
+			mapped.setMaxSuggestions(matches);
+			for(String prefix : new String[]{"f", "fa", "far", "z", "q"}) {
+				assertEquals(ranked.autocomplete(prefix), mapped.autocomplete(prefix));
+			}
+		}
+		mapped.setMaxSuggestions(3);
+		assertEquals(Arrays.asList("fast", "father", "farm"), mapped.autocomplete("fa"));
+	}
+
+	@Test
+	public void testAutocorrect() {
+		for(String word : new String[]{"recieve", "whre", "amazin", "gogle", "yhere", "janurary"}) {
+			assertEquals(autotext.autocorrect(word), snapshot.autocorrect(word));
+			QueryOptions options = new QueryOptions(QueryOptions.LENGTH_ADAPTIVE, 10);
+			assertEquals(autotext.autocorrect(word, options), snapshot.autocorrect(word, options));
+		}
+		assertNull(snapshot.autocorrect("receive"));
+		assertEquals(1, snapshot.correctAll(Arrays.asList("teh", "the")).size());
+	}
+
+	@Test
+	public void testCache() {
+		snapshot.setCache(100, 1, TimeUnit.HOURS);
+		snapshot.autocorrect("recieve");
+		snapshot.autocorrect("recieve");
+		snapshot.autocomplete("re");
+		snapshot.autocomplete("re");
+		assertEquals(1, snapshot.getCorrectionCache().getHits());
+		assertEquals(1, snapshot.getSuggestionCache().getHits());
+	}
+
+	@Test
+	public void testRemovedWords() throws IOException {
+		//removed words are left out of the snapshot, with room for every word within the tolerance both find the same words
+		int i = 0;
+		for(String word : lexicon.getLexicon()) {
+			if(i++ % 10 == 0) autotext.removeWord(word);
+		}
+		AutoText removed = writeAndOpen(autotext);
+		autotext.setMaxSuggestions(Integer.MAX_VALUE);
+		removed.setMaxSuggestions(Integer.MAX_VALUE);
+		QueryOptions options = new QueryOptions(3, 1000);
+		
+		for(String typo : Typos.substitutions("src/test/resources/test_words_bk.txt", new Random(3))) {
+			assertEquals(toSet(autotext.autocorrect(typo, options)), toSet(removed.autocorrect(typo, options)));
+			assertEquals(toSet(autotext.autocomplete(typo.substring(0, 2))), toSet(removed.autocomplete(typo.substring(0, 2))));
+		}
+	}
+
+	@Test
+	public void testOtherLexicon() throws IOException {
+		autotext.setLexicon(new CompactLexicon(lexicon));
+		AutoText compact = writeAndOpen(autotext);
+		assertTrue(compact.isValidWord("receive"));
+		assertFalse(compact.isValidWord("recieve"));
+	}
+
+	@Test
+	public void testReadOnly() {
+		//nothing is removed from read-only words
+		assertFalse(snapshot.removeWord("receive"));
+		assertTrue(snapshot.isValidWord("receive"));
+		snapshot.setConcurrent(true);
+
+		thrown.expect(IllegalStateException.class);
+		snapshot.autocompleteFuzzy("recie");
+	}
+
+	@Test
+	public void testAddWords() throws IOException {
+		thrown.expect(IllegalStateException.class);
+		snapshot.addWordsFromFileAutocomplete("src/test/resources/test_words_trie.txt");
+	}
+
+	@Test
+	public void testOtherAutocorrector() throws IOException {
+		//only a BKTree can be written
+		autotext.setAutocorrector(new SymSpell(lexicon));
+		thrown.expect(IllegalStateException.class);
+		writeAndOpen(autotext);
+	}
+
+	@Test
+	public void testInvalidFile() throws IOException {
+		File file = File.createTempFile("autotext", ".snapshot");
+		file.deleteOnExit();
+		try(FileOutputStream out = new FileOutputStream(file)) {
+			out.write(new byte[64]);
+		}
+
+		thrown.expect(IOException.class);
+		AutoText.open(file.getPath());
+	}
+
+	private AutoText writeAndOpen(AutoText autotext) throws IOException {
+		File file = File.createTempFile("autotext", ".snapshot");
+		file.deleteOnExit();
+		autotext.writeSnapshot(file.getPath());
+		return AutoText.open(file.getPath());
+	}
+
+	private HashSet<String> toSet(List<String> words) {
+		return words == null ? null : new HashSet<String>(words);
+	}
+
+}
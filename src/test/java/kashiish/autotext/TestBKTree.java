@@ -1,17 +1,27 @@
 package test.java.kashiish.autotext;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import main.java.kashiish.autotext.Lexicon;
 import main.java.kashiish.autotext.autocorrect.BKTree;
+import main.java.kashiish.autotext.autocorrect.EditDistance;
+import main.java.kashiish.autotext.autocorrect.MappedBKTree;
+import main.java.kashiish.autotext.autocorrect.QueryOptions;
 
 
 public class TestBKTree {
@@ -59,6 +69,40 @@ public class TestBKTree {
 		testCloseWordsHelper("janurary", new String[]{"january"});
 	}
 	
+	@Test
+	public void testNearestWords() {
+		ArrayList<String> nearest = bktree.getNearestWords("whre", 5);
+		assertEquals(4, nearest.size());
+		assertEquals("where", nearest.get(0));
+		assertEquals(new HashSet<>(Arrays.asList("three", "were", "wire")), new HashSet<>(nearest.subList(1, 4)));
+		//closest first, all within the tolerance
+		for(int i = 1; i < nearest.size(); i++) {
+			int previous = EditDistance.getDistance("whre", nearest.get(i - 1));
+			int distance = EditDistance.getDistance("whre", nearest.get(i));
+			assertTrue(previous <= distance && distance <= 3);
+		}
+		
+		assertEquals(nearest.subList(0, 2), bktree.getNearestWords("whre", 2));
+		assertTrue(bktree.getNearestWords("recieve", 0).isEmpty());
+		assertTrue(bktree.getNearestWords("zqjzqjzqjzqj", 3).isEmpty());
+	}
+	
+	@Test
+	public void testQueryOptions() {
+		//a single typo in a short word costs 2
+		assertTrue(bktree.getClosestWords("whre", new QueryOptions(1, 3)).isEmpty());
+		testCloseWordsHelper("whre", new QueryOptions(2, 3), new String[]{"where"});
+		testCloseWordsHelper("whre", new QueryOptions(QueryOptions.LENGTH_ADAPTIVE, 3), new String[]{"where"});
+		testCloseWordsHelper("janurary", new QueryOptions(QueryOptions.LENGTH_ADAPTIVE, 3), new String[]{"january"});
+		
+		assertEquals(1, bktree.getClosestWords("amazin", new QueryOptions(3, 1)).size());
+		assertEquals(2, QueryOptions.LENGTH_ADAPTIVE.getTolerance(4));
+		assertEquals(4, QueryOptions.LENGTH_ADAPTIVE.getTolerance(12));
+		
+		thrown.expect(IllegalArgumentException.class);
+		new QueryOptions(-1, 3);
+	}
+	
 	@Test
 	public void testClosestWordsPunctuation() {
 		bktree.insertWord("etc.");
@@ -67,8 +111,122 @@ public class TestBKTree {
 		assertEquals(true, bktree.getClosestWords("make up").contains("makeup"));
 	}
 	
+	@Test
+	public void testClosestWordsNoLetters() {
+		//nothing is left of these words once they are normalized, one letter words are the closest
+		for(String word : new String[]{".", "--", "123"}) {
+			ArrayList<String> words = bktree.getClosestWords(word);
+			assertFalse(words.isEmpty());
+			assertEquals(1, words.get(0).length());
+		}
+	}
+	
+	@Test
+	public void testConcurrentInsertions() throws InterruptedException {
+		bktree.setConcurrent(true);
+		final String[] words = new String[]{"qwertyuiop", "asdfghjkl", "zxcvbnm", "mnbvcxz", "lkjhgfdsa", "poiuytrewq"};
+		
+		Thread writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				for(String word : words) {
+					bktree.insertWord(word);
+				}
+			}
+		});
+		writer.start();
+		
+		while(writer.isAlive()) {
+			testCloseWordsHelper("recieve", new String[]{"receive"});
+		}
+		writer.join();
+		
+		assertEquals(3503 + words.length, bktree.getNumWords());
+		for(String word : words) {
+			assertTrue(bktree.getClosestWords(word).contains(word));
+		}
+		testClosestWords();
+	}
+	
+	@Test
+	public void testRemoveWords() {
+		assertTrue(bktree.removeWord("receive"));
+		assertFalse(bktree.removeWord("receive"));
+		assertEquals(3502, bktree.getNumWords());
+		assertFalse(bktree.getClosestWords("recieve").contains("receive"));
+		testCloseWordsHelper("whre", new String[]{"where"});
+		
+		//a removed word can be inserted again
+		bktree.insertWord("receive");
+		assertEquals(3503, bktree.getNumWords());
+		testCloseWordsHelper("recieve", new String[]{"receive"});
+		
+		thrown.expect(IllegalArgumentException.class);
+		bktree.removeWord(null);
+	}
+	
+	@Test
+	public void testCompaction() throws IOException {
+		HashSet<String> kept = new HashSet<>(Arrays.asList("where", "there", "receive", "google", "january", "amazing", "amazon"));
+		
+		//removing most of the words compacts the tree several times
+		for(String word : new Lexicon("src/test/resources/test_words_bk.txt").getLexicon()) {
+			if(!kept.contains(word)) bktree.removeWord(word);
+		}
+		assertEquals(kept.size(), bktree.getNumWords());
+		
+		testCloseWordsHelper("recieve", new String[]{"receive"});
+		testCloseWordsHelper("whre", new String[]{"where"});
+		testCloseWordsHelper("gogle", new String[]{"google"});
+		testCloseWordsHelper("amazin", new String[]{"amazon", "amazing"});
+		
+		for(String word : kept) {
+			assertTrue(bktree.removeWord(word));
+		}
+		assertEquals(0, bktree.getNumWords());
+		assertTrue(bktree.getClosestWords("amazon").isEmpty());
+	}
+	
+	@Test
+	public void testBulkConstruction() throws IOException {
+		Lexicon lexicon = new Lexicon("src/test/resources/test_words_bk.txt");
+		
+		BKTree sequential = new BKTree();
+		for(String word : lexicon.getLexicon()) {
+			sequential.insertWord(word);
+		}
+		
+		//the bulk-loaded tree has the same nodes as the tree built one word at a time
+		assertEquals(sequential.getNumWords(), bktree.getNumWords());
+		assertTrue(Arrays.equals(serialize(sequential), serialize(bktree)));
+	}
+	
+	@Test
+	public void testParallelQueries() throws IOException {
+		BKTree parallel = new BKTree("src/test/resources/test_words_bk.txt");
+		parallel.setParallel(true);
+		
+		//with room for every word within the tolerance, both searches visit the same nodes and find the same words
+		for(String typo : Typos.substitutions("src/test/resources/test_words_bk.txt", new Random(7))) {
+			assertEquals(bktree.getNearestWords(typo, 1000), parallel.getNearestWords(typo, 1000));
+		}
+		
+		testCloseWordsHelper("recieve", new String[]{"receive"});
+		assertEquals(new HashSet<>(Arrays.asList("receive")), new HashSet<>(parallel.getClosestWords("recieve")));
+	}
+	
+	private byte[] serialize(BKTree tree) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		MappedBKTree.write(tree, new DataOutputStream(bytes));
+		return bytes.toByteArray();
+	}
+	
 	private void testCloseWordsHelper(String word, String[] expected) {
 		assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(bktree.getClosestWords(word)));
 	}
+	
+	private void testCloseWordsHelper(String word, QueryOptions options, String[] expected) {
+		assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(bktree.getClosestWords(word, options)));
+	}
 
 }
@@ -0,0 +1,109 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import main.java.kashiish.autotext.AutoText;
+import main.java.kashiish.autotext.CompactLexicon;
+import main.java.kashiish.autotext.Lexicon;
+
+
+public class TestCompactLexicon {
+	
+	/* Words of one to four UTF-8 bytes per character, and an unpaired surrogate */
+	private static final String[] UNICODE_WORDS = {"caf\u00e9", "na\u00efve", "\u65e5\u672c\u8a9e", "ok\uD83D\uDE00", "bad\uD800"};
+	
+	private Lexicon lexicon;
+	private CompactLexicon compact;
+	
+	@Before
+	public void setUpLexicon() throws IOException {
+		lexicon = new Lexicon("src/test/resources/test_words_bk.txt");
+		compact = new CompactLexicon(lexicon);
+	}
+	
+	@Test
+	public void testContainsWord() {
+		//the number of words in test_words.txt is 3503
+		assertEquals(3503, compact.getNumWords());
+		for(String word : lexicon.getLexicon()) {
+			assertTrue(word, compact.containsWord(word));
+			assertEquals(lexicon.containsWord(word + "q"), compact.containsWord(word + "q"));
+			assertEquals(lexicon.containsWord(word.substring(1)), compact.containsWord(word.substring(1)));
+		}
+		
+		assertFalse(compact.containsWord("recieve"));
+		assertFalse(compact.containsWord("Receive"));
+		assertFalse(compact.containsWord(""));
+		assertFalse(compact.containsWord(null));
+	}
+	
+	@Test
+	public void testUnicodeWords() throws IOException {
+		Lexicon words = new Lexicon(createFile(""));
+		for(String word : UNICODE_WORDS) {
+			words.getLexicon().add(word);
+		}
+		CompactLexicon unicode = new CompactLexicon(words);
+		
+		assertEquals(5, unicode.getNumWords());
+		assertTrue(unicode.containsWord("caf\u00e9"));
+		assertTrue(unicode.containsWord("na\u00efve"));
+		assertTrue(unicode.containsWord("\u65e5\u672c\u8a9e"));
+		assertTrue(unicode.containsWord("ok\uD83D\uDE00"));
+		assertTrue(unicode.containsWord("bad\uD800"));
+		
+		assertFalse(unicode.containsWord("cafe"));
+		assertFalse(unicode.containsWord("caf"));
+		assertFalse(unicode.containsWord("\u65e5\u672c"));
+		assertFalse(unicode.containsWord("ok\uD83D"));
+	}
+	
+	@Test
+	public void testWriteAndOpen() throws IOException {
+		File file = File.createTempFile("lexicon", ".bin");
+		file.deleteOnExit();
+		compact.write(file.getPath());
+		
+		CompactLexicon mapped = CompactLexicon.open(file.getPath());
+		assertEquals(compact.getNumWords(), mapped.getNumWords());
+		assertEquals(compact.getSize(), file.length());
+		for(String word : lexicon.getLexicon()) {
+			assertTrue(word, mapped.containsWord(word));
+		}
+		assertFalse(mapped.containsWord("recieve"));
+	}
+	
+	@Test
+	public void testEmptyLexicon() throws IOException {
+		CompactLexicon empty = new CompactLexicon(new Lexicon(createFile("")));
+		assertEquals(0, empty.getNumWords());
+		assertFalse(empty.containsWord("where"));
+		assertFalse(empty.containsWord(""));
+	}
+	
+	@Test
+	public void testAutoText() throws IOException {
+		AutoText autotext = new AutoText("src/test/resources/test_words_bk.txt");
+		autotext.setLexicon(compact);
+		assertTrue(autotext.isValidWord("receive"));
+		assertNull(autotext.autocorrect("receive"));
+		assertEquals("receive", autotext.autocorrect("recieve").get(0));
+	}
+	
+	private String createFile(String text) throws IOException {
+		File file = File.createTempFile("lexicon", ".txt");
+		file.deleteOnExit();
+		FileWriter writer = new FileWriter(file);
+		writer.write(text);
+		writer.close();
+		return file.getPath();
+	}
+
+}
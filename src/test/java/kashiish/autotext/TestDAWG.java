@@ -0,0 +1,100 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.autocomplete.DAWG;
+import main.java.kashiish.autotext.autocomplete.Trie;
+
+
+public class TestDAWG {
+
+	@Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+	private DAWG dawg;
+
+	@Before
+	public void setUpDAWG() throws IOException {
+		dawg = new DAWG("src/test/resources/test_words_trie.txt");
+	}
+
+	@Test
+	public void testDAWGCreation() {
+		//the number of words in test_words.txt is 3836
+		assertEquals(3836, dawg.getNumWords());
+	}
+
+	@Test
+	public void testUnsortedWords() {
+		//words are sorted before the DAWG is built
+		DAWG unsorted = new DAWG(Arrays.asList("zoo", "zebra", "Apple", "zzz", "zoo"));
+		assertEquals(4, unsorted.getNumWords());
+		String[] sorted = {"apple", "zebra", "zoo", "zzz"};
+		for(int i = 0; i < sorted.length; i++) {
+			assertTrue(unsorted.containsWord(sorted[i]));
+			assertEquals(sorted[i], unsorted.getWord(i));
+		}
+		
+		thrown.expect(IllegalArgumentException.class);
+		new DAWG(Arrays.asList("zoo", ""));
+	}
+
+	@Test
+	public void testContainsWord() throws IOException {
+		Lexicon lexicon = new Lexicon("src/test/resources/test_words_trie.txt");
+		for(String word : lexicon.getLexicon()) {
+			assertTrue(dawg.containsWord(word));
+		}
+		assertFalse(dawg.containsWord("wri"));
+		assertFalse(dawg.containsWord("zeros"));
+		assertFalse(dawg.containsWord(""));
+		assertFalse(dawg.containsWord(null));
+	}
+
+	@Test
+	public void testPrefixSuggestions() throws IOException {
+		assertEquals(Arrays.asList("far", "farm", "farmer", "farming", "farther", "farthest"), dawg.getWordsWithPrefix("far"));
+		assertEquals(new HashSet<>(Arrays.asList("give away", "give back", "give in", "give off", "give out", "give up")),
+				new HashSet<>(dawg.getWordsWithPrefix("give ")));
+
+		Trie reference = new Trie("src/test/resources/test_words_trie.txt");
+		reference.setMaxMatches(Integer.MAX_VALUE);
+		dawg.setMaxMatches(Integer.MAX_VALUE);
+		for(String prefix : new String[]{"a", "con", "re", "th", "under"}) {
+			assertEquals(new HashSet<>(reference.getWordsWithPrefix(prefix)), new HashSet<>(dawg.getWordsWithPrefix(prefix)));
+		}
+	}
+
+	@Test
+	public void testWordNumbering() {
+		int numWords = dawg.getNumWords();
+		String previous = "";
+		for(int i = 0; i < numWords; i++) {
+			String word = dawg.getWord(i);
+			assertTrue(word.compareTo(previous) > 0);
+			assertEquals(i, dawg.getIndex(word));
+			previous = word;
+		}
+		assertEquals(-1, dawg.getIndex("zeros"));
+	}
+
+	@Test
+	public void testSharedSuffixes() {
+		//"tap", "taps", "top" and "tops" only need 5 states, "zz" adds one and shares the last state
+		DAWG small = new DAWG(Arrays.asList("tops", "tap", "top", "taps", "zz"));
+		assertEquals(6, small.getNumStates());
+		assertEquals(3, small.getIndex("tops"));
+		assertEquals("zz", small.getWord(4));
+	}
+
+}
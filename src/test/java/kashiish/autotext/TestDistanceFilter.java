@@ -0,0 +1,73 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.autocorrect.DistanceFilter;
+import main.java.kashiish.autotext.autocorrect.EditDistance;
+
+
+public class TestDistanceFilter {
+
+	@Test
+	public void testLowerBounds() {
+		//words with no letters in common
+		assertTrue(new DistanceFilter("cat").getLowerBound("dog") > 3);
+		assertTrue(new DistanceFilter("house").getLowerBound("jacket") > 3);
+
+		//repeated letters and transpositions can make different words close
+		assertTrue(new DistanceFilter("all").getLowerBound("a") <= EditDistance.getDistance("all", "a"));
+		assertTrue(new DistanceFilter("abab").getLowerBound("baba") <= EditDistance.getDistance("abab", "baba"));
+		assertTrue(new DistanceFilter("ababab").getLowerBound("bababa") <= EditDistance.getDistance("ababab", "bababa"));
+
+		assertEquals(0, new DistanceFilter("same").getLowerBound("same"));
+		assertEquals(Integer.MIN_VALUE, new DistanceFilter("word").getLowerBound(""));
+		assertEquals(Integer.MIN_VALUE, new DistanceFilter("").getLowerBound("word"));
+	}
+
+	@Test
+	public void testWords() throws IOException {
+		ArrayList<String> words = new ArrayList<String>();
+		for(String word : new Lexicon("src/test/resources/test_words_bk.txt").getLexicon()) {
+			if(word.matches("[a-z]+")) words.add(word);
+		}
+		Random random = new Random(42);
+
+		//the bound is never larger than the distance, for other words and for typos
+		for(int i = 0; i < 20000; i++) {
+			String word = words.get(random.nextInt(words.size()));
+			assertBound(word, words.get(random.nextInt(words.size())));
+			assertBound(word, Typos.typo(word, random));
+		}
+	}
+
+	@Test
+	public void testRepeatsAndTranspositions() {
+		Random random = new Random(42);
+
+		//few letters give many repeated letters and transpositions
+		for(int i = 0; i < 20000; i++) {
+			assertBound(randomWord("abtyq", random), randomWord("abtyq", random));
+		}
+	}
+
+	private void assertBound(String wordA, String wordB) {
+		int bound = new DistanceFilter(wordA).getLowerBound(wordB);
+		assertTrue(wordA + " " + wordB, bound <= EditDistance.getDistance(wordA, wordB));
+	}
+
+	private String randomWord(String letters, Random random) {
+		StringBuilder word = new StringBuilder();
+		for(int length = 1 + random.nextInt(8); length > 0; length--) {
+			word.append(letters.charAt(random.nextInt(letters.length())));
+		}
+		return word.toString();
+	}
+
+}
@@ -0,0 +1,67 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.autocorrect.EditDistance;
+
+
+public class TestEditDistance {
+
+	@Test
+	public void testDistances() {
+		//transposition
+		assertEquals(2, EditDistance.getDistance("recieve", "receive"));
+		assertEquals(2, EditDistance.getDistance("teh", "the"));
+		//missing character
+		assertEquals(2, EditDistance.getDistance("whre", "where"));
+		//repeated letters are almost free
+		assertEquals(0, EditDistance.getDistance("gogle", "google"));
+		assertEquals(0, EditDistance.getDistance("catle", "cattle"));
+		assertEquals(0, EditDistance.getDistance("mapple", "maple"));
+		//'y' is closer to 't' than 'w' on qwerty keyboard
+		assertEquals(2, EditDistance.getDistance("yhere", "there"));
+		assertEquals(3, EditDistance.getDistance("yhere", "where"));
+
+		assertEquals(7, EditDistance.getDistance("cat", "dog"));
+		assertEquals(3, EditDistance.getDistance("abc", ""));
+		assertEquals(0, EditDistance.getDistance("same", "same"));
+	}
+
+	@Test
+	public void testKeysAreClose() {
+		assertTrue(EditDistance.keysAreClose('t', 'y'));
+		assertTrue(EditDistance.keysAreClose('a', 'q'));
+		assertTrue(EditDistance.keysAreClose('b', 'n'));
+		assertFalse(EditDistance.keysAreClose('w', 't'));
+		assertFalse(EditDistance.keysAreClose('a', 'p'));
+	}
+
+	@Test
+	public void testMaxDistance() throws IOException {
+		ArrayList<String> words = new ArrayList<String>();
+		for(String word : new Lexicon("src/test/resources/test_words_bk.txt").getLexicon()) {
+			if(word.matches("[a-z]+")) words.add(word);
+		}
+		Random random = new Random(42);
+
+		//a bounded distance is exact up to the bound and larger than the bound past it
+		for(int i = 0; i < 20000; i++) {
+			String a = words.get(random.nextInt(words.size()));
+			String b = words.get(random.nextInt(words.size()));
+			int max = random.nextInt(8);
+
+			int distance = EditDistance.getDistance(a, b);
+			assertEquals(distance, EditDistance.getDistance(b, a));
+			if(distance <= max) assertEquals(distance, EditDistance.getDistance(a, b, max));
+			else assertTrue(EditDistance.getDistance(a, b, max) > max);
+		}
+	}
+
+}
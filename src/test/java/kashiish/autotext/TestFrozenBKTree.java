@@ -0,0 +1,122 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import main.java.kashiish.autotext.AutoText;
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.autocorrect.BKTree;
+import main.java.kashiish.autotext.autocorrect.FrozenBKTree;
+import main.java.kashiish.autotext.autocorrect.KeyboardLayout;
+import main.java.kashiish.autotext.autocorrect.QueryOptions;
+
+
+public class TestFrozenBKTree {
+	
+	@Rule
+    public ExpectedException thrown = ExpectedException.none();
+	
+	private BKTree bktree;
+	private FrozenBKTree frozen;
+	
+	@Before
+	public void setUpTree() throws IOException {
+		bktree = new BKTree("src/test/resources/test_words_bk.txt");
+		frozen = new FrozenBKTree(bktree);
+	}
+	
+	@Test
+	public void testTreeCreation() {
+		//the number of words in test_words.txt is 3503
+		assertEquals(3503, frozen.getNumWords());
+		assertEquals(KeyboardLayout.QWERTY, frozen.getLayout());
+	}
+	
+	@Test
+	public void testClosestWords() {
+		testCloseWordsHelper("recieve", new String[]{"receive"});
+		testCloseWordsHelper("whre", new String[]{"where"});
+		testCloseWordsHelper("gogle", new String[]{"google"});
+		testCloseWordsHelper("amazin", new String[]{"amazon", "amazing"});
+		
+		assertTrue(frozen.getClosestWords("").isEmpty());
+		assertEquals(new HashSet<>(bktree.getClosestWords("teh", new QueryOptions(4, 10))), 
+				new HashSet<>(frozen.getClosestWords("teh", new QueryOptions(4, 10))));
+	}
+	
+	@Test
+	public void testSameAsBKTree() throws IOException {
+		//with room for every word within the tolerance, both trees find the same words
+		for(String typo : Typos.substitutions("src/test/resources/test_words_bk.txt", new Random(11))) {
+			assertEquals(bktree.getNearestWords(typo, 1000), frozen.getNearestWords(typo, 1000));
+			assertEquals(bktree.getNearestWords(typo, 3).size(), frozen.getNearestWords(typo, 3).size());
+		}
+	}
+	
+	@Test
+	public void testFrozenCopy() {
+		//the frozen tree leaves out removed words and does not see later changes
+		bktree.removeWord("receive");
+		FrozenBKTree removed = new FrozenBKTree(bktree);
+		assertEquals(3502, removed.getNumWords());
+		assertFalse(removed.getClosestWords("recieve").contains("receive"));
+		
+		bktree.insertWord("receive");
+		assertFalse(removed.getClosestWords("recieve").contains("receive"));
+		testCloseWordsHelper("recieve", new String[]{"receive"});
+		
+		assertEquals(0, new FrozenBKTree(new BKTree()).getNumWords());
+		assertTrue(new FrozenBKTree(new BKTree()).getClosestWords("where").isEmpty());
+	}
+	
+	@Test
+	public void testRemovedWords() throws IOException {
+		//too few words are removed for the BKTree to compact itself, so the frozen tree copies removed words
+		ArrayList<String> removedWords = new ArrayList<String>();
+		int i = 0;
+		for(String word : new Lexicon("src/test/resources/test_words_bk.txt").getLexicon()) {
+			if(i++ % 10 != 0) continue;
+			bktree.removeWord(word);
+			removedWords.add(word);
+		}
+		
+		FrozenBKTree removed = new FrozenBKTree(bktree);
+		assertEquals(bktree.getNumWords(), removed.getNumWords());
+		
+		for(String word : removedWords) {
+			ArrayList<String> nearest = removed.getNearestWords(word, 1000);
+			assertFalse(nearest.contains(word));
+			assertEquals(bktree.getNearestWords(word, 1000), nearest);
+		}
+	}
+	
+	@Test
+	public void testAutoText() throws IOException {
+		AutoText autotext = new AutoText("src/test/resources/test_words_bk.txt");
+		autotext.setAutocorrector(frozen);
+		assertEquals("receive", autotext.autocorrect("recieve").get(0));
+		
+		//removing a word only changes the Trie, the frozen tree is read-only
+		assertTrue(autotext.removeWord("receive"));
+		assertFalse(autotext.removeWord("receive"));
+		assertEquals("receive", autotext.autocorrect("recieve").get(0));
+		
+		thrown.expect(IllegalStateException.class);
+		autotext.addWordsFromFileAutocorrect("src/test/resources/test_words_bk.txt");
+	}
+	
+	private void testCloseWordsHelper(String word, String[] expected) {
+		assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(frozen.getClosestWords(word)));
+	}
+
+}
@@ -0,0 +1,86 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.autocorrect.BKTree;
+import main.java.kashiish.autotext.autocorrect.EditDistance;
+import main.java.kashiish.autotext.autocorrect.KeyboardLayout;
+
+
+public class TestKeyboardLayout {
+
+	@Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+	/* Key positions on a QWERTY keyboard the close keys used to be computed from */
+	private static final double[] QWERTY_KEYS = new double[]{10.1, 24.3, 22.3, 12.1, 2, 13.1, 14.1, 15.1, 7, 16.1, 17.1, 18.1,
+															  26.3, 25.3, 8, 9, 0, 3, 11.1, 4, 6, 23.3, 1, 21.3, 5, 20.3};
+
+	@Test
+	public void testQwerty() {
+		for(char a = 'a'; a <= 'z'; a++) {
+			for(char b = 'a'; b <= 'z'; b++) {
+				double val = Math.abs(QWERTY_KEYS[a - 'a'] - QWERTY_KEYS[b - 'a']);
+				boolean close = (double) Math.round(val * 10) / 10 == 1 || val > 9 && val <= 11;
+				assertTrue("" + a + b, close == KeyboardLayout.QWERTY.keysAreClose(a, b));
+			}
+		}
+	}
+
+	@Test
+	public void testLayouts() {
+		assertTrue(KeyboardLayout.AZERTY.keysAreClose('a', 'z'));
+		assertTrue(KeyboardLayout.AZERTY.keysAreClose('l', 'm'));
+		assertTrue(KeyboardLayout.AZERTY.keysAreClose('w', 's'));
+		assertFalse(KeyboardLayout.AZERTY.keysAreClose('a', 's'));
+
+		assertTrue(KeyboardLayout.DVORAK.keysAreClose('a', 'o'));
+		assertTrue(KeyboardLayout.DVORAK.keysAreClose('t', 'h'));
+		assertFalse(KeyboardLayout.DVORAK.keysAreClose('t', 'y'));
+
+		//'l' and 'm' are next to each other on AZERTY only
+		assertEquals(2, EditDistance.getDistance("lap", "map", Integer.MAX_VALUE, KeyboardLayout.AZERTY));
+		assertEquals(3, EditDistance.getDistance("lap", "map", Integer.MAX_VALUE, KeyboardLayout.QWERTY));
+	}
+
+	@Test
+	public void testFromFile() throws IOException {
+		File file = File.createTempFile("layout", ".txt");
+		file.deleteOnExit();
+		FileWriter writer = new FileWriter(file);
+		writer.write("QWERTYUIOP\nASDFGHJKL\n\nZXCVBNM\n");
+		writer.close();
+
+		KeyboardLayout layout = KeyboardLayout.fromFile(file.getPath());
+		assertTrue(Arrays.equals(KeyboardLayout.QWERTY.getRows(), layout.getRows()));
+		for(char a = 'a'; a <= 'z'; a++) {
+			for(char b = 'a'; b <= 'z'; b++) {
+				assertEquals(KeyboardLayout.QWERTY.keysAreClose(a, b), layout.keysAreClose(a, b));
+			}
+		}
+	}
+
+	@Test
+	public void testBKTree() throws IOException {
+		BKTree bktree = new BKTree(new Lexicon("src/test/resources/test_words_bk.txt"), KeyboardLayout.DVORAK);
+		assertEquals(KeyboardLayout.DVORAK, bktree.getLayout());
+		assertEquals(Arrays.asList("receive"), bktree.getClosestWords("recieve"));
+	}
+
+	@Test
+	public void testDuplicateKeys() {
+		thrown.expect(IllegalArgumentException.class);
+		new KeyboardLayout("qwerty", "asdfq");
+	}
+
+}
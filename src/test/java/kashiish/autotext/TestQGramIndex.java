@@ -0,0 +1,93 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.autocorrect.QGramIndex;
+
+
+public class TestQGramIndex {
+	
+	@Rule
+    public ExpectedException thrown = ExpectedException.none();
+	
+	private QGramIndex index;
+	
+	@Before
+	public void setUpIndex() throws IOException {
+		index = new QGramIndex("src/test/resources/test_words_bk.txt");	
+	}
+	
+	@Test
+	public void testIndexCreation() {
+		//the number of words in test_words.txt is 3503
+		assertEquals(3503, index.getNumWords());
+	}
+	
+	@Test
+	public void testInvalidInsertions() {
+		thrown.expect(IllegalArgumentException.class);
+		index.insertWord(null);
+		index.insertWord("");
+	}
+	
+	@Test
+	public void testClosestWords() {
+		//transposition
+		testCloseWordsHelper("recieve", new String[]{"receive"});
+		//missing character
+		testCloseWordsHelper("whre", new String[]{"where"});
+		//missing character + substitution 
+		testCloseWordsHelper("amazin", new String[]{"amazon", "amazing"});
+		//missing consecutive character
+		testCloseWordsHelper("gogle", new String[]{"google"});
+		testCloseWordsHelper("asessment", new String[]{"assessment"});
+		//substitution, 'y' is closer to 't' than 'w' on qwerty keyboard
+		testCloseWordsHelper("yhere", new String[]{"there"});
+		//deletion
+		testCloseWordsHelper("utillities", new String[]{"utilities"});
+		testCloseWordsHelper("janurary", new String[]{"january"});
+		
+		assertTrue(index.getClosestWords("").isEmpty());
+	}
+	
+	@Test
+	public void testCandidates() throws IOException {
+		//words of about the same length that share most of the 2-grams
+		assertTrue(index.getCandidates("recieve", 1).contains("receive"));
+		assertFalse(index.getCandidates("recieve", 2).contains("google"));
+		//more edits allow more candidates
+		assertTrue(index.getCandidates("recieve", 1).size() < index.getCandidates("recieve", 2).size());
+		
+		QGramIndex trigrams = new QGramIndex(new Lexicon("src/test/resources/test_words_bk.txt"), 3);
+		assertEquals(new HashSet<>(Arrays.asList("receive")), new HashSet<>(trigrams.getClosestWords("recieve")));
+		
+		thrown.expect(IllegalArgumentException.class);
+		new QGramIndex(new Lexicon("src/test/resources/test_words_bk.txt"), 0);
+	}
+	
+	@Test
+	public void testRemoveWords() {
+		assertTrue(index.removeWord("receive"));
+		assertFalse(index.removeWord("receive"));
+		assertEquals(3502, index.getNumWords());
+		assertFalse(index.getClosestWords("recieve").contains("receive"));
+		
+		index.insertWord("receive");
+		testCloseWordsHelper("recieve", new String[]{"receive"});
+	}
+	
+	private void testCloseWordsHelper(String word, String[] expected) {
+		assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(index.getClosestWords(word)));
+	}
+
+}
@@ -0,0 +1,78 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import main.java.kashiish.autotext.autocomplete.RadixTrie;
+import main.java.kashiish.autotext.autocomplete.Trie;
+
+
+public class TestRadixTrie {
+
+	@Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+	private RadixTrie trie;
+
+	@Before
+	public void setUpTrie() throws IOException {
+		trie = new RadixTrie("src/test/resources/test_words_trie.txt");
+	}
+
+	@Test
+	public void testTrieCreation() {
+		//the number of words in test_words.txt is 3836
+		assertEquals(3836, trie.getNumWords());
+		//a radix trie has at most one inner node per word
+		assertTrue(trie.getNumNodes() < 2 * trie.getNumWords());
+	}
+
+	@Test
+	public void testInvalidInsertions() {
+		thrown.expect(IllegalArgumentException.class);
+		trie.insertWord(null);
+		trie.insertWord("");
+	}
+
+	@Test
+	public void testPrefixSuggestions() {
+		testPrefixSuggestions("wri", new String[]{"wrist", "write", "write back", "write down", "writer", "writing", "written"});
+		testPrefixSuggestions("hang a", new String[]{"hang about", "hang about with", "hang around", "hang around with"});
+		testPrefixSuggestions("z", new String[]{"zero", "zone"});
+		testPrefixSuggestions("zer", new String[]{"zero"});
+		testPrefixSuggestions("zeros", new String[]{});
+		testPrefixSuggestions("zx", new String[]{});
+	}
+
+	@Test
+	public void testSplitEdges() {
+		trie.insertWord("zeroes");
+		trie.insertWord("zed");
+		testPrefixSuggestions("ze", new String[]{"zero", "zeroes", "zed"});
+		testPrefixSuggestions("zero", new String[]{"zero", "zeroes"});
+		assertEquals(Arrays.asList("zed", "zero", "zeroes"), trie.getWordsWithPrefix("z").subList(0, 3));
+	}
+
+	@Test
+	public void testSameWordsAsTrie() throws IOException {
+		Trie reference = new Trie("src/test/resources/test_words_trie.txt");
+		reference.setMaxMatches(Integer.MAX_VALUE);
+		trie.setMaxMatches(Integer.MAX_VALUE);
+		for(String prefix : new String[]{"a", "con", "re", "th", "under"}) {
+			assertEquals(new HashSet<>(reference.getWordsWithPrefix(prefix)), new HashSet<>(trie.getWordsWithPrefix(prefix)));
+		}
+	}
+
+	private void testPrefixSuggestions(String prefix, String[] expected) {
+		assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(trie.getWordsWithPrefix(prefix)));
+	}
+
+}
@@ -0,0 +1,116 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import main.java.kashiish.autotext.AutoText;
+import main.java.kashiish.autotext.ResultCache;
+
+
+public class TestResultCache {
+
+	@Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+	private ResultCache<String, Integer> cache;
+
+	@Before
+	public void setUpCache() {
+		cache = new ResultCache<String, Integer>(100);
+	}
+
+	@Test
+	public void testHitsAndMisses() {
+		assertNull(cache.get("teh"));
+		cache.put("teh", 1, cache.getGeneration());
+		assertEquals(Integer.valueOf(1), cache.get("teh"));
+		assertEquals(Integer.valueOf(1), cache.get("teh"));
+
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testEviction() {
+		for(int i = 0; i < 1000; i++) {
+			cache.put("word" + i, i, cache.getGeneration());
+			//keep the first word recently used
+			assertEquals(Integer.valueOf(0), cache.get("word0"));
+		}
+
+		assertTrue(cache.size() <= 100);
+		assertNull(cache.get("word1"));
+	}
+
+	@Test
+	public void testTimeToLive() throws InterruptedException {
+		cache = new ResultCache<String, Integer>(100, 50, TimeUnit.MILLISECONDS);
+		cache.put("teh", 1, cache.getGeneration());
+		assertEquals(Integer.valueOf(1), cache.get("teh"));
+
+		Thread.sleep(100);
+		assertNull(cache.get("teh"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testInvalidate() {
+		long generation = cache.getGeneration();
+		cache.put("teh", 1, generation);
+		cache.invalidate();
+		assertNull(cache.get("teh"));
+
+		//a result computed before the cache was invalidated is dropped
+		cache.put("teh", 1, generation);
+		assertNull(cache.get("teh"));
+
+		cache.put("teh", 2, cache.getGeneration());
+		assertEquals(Integer.valueOf(2), cache.get("teh"));
+	}
+
+	@Test
+	public void testInvalidSize() {
+		thrown.expect(IllegalArgumentException.class);
+		new ResultCache<String, Integer>(0);
+	}
+
+	@Test
+	public void testAutoText() throws IOException {
+		AutoText autotext = new AutoText("src/test/resources/test_words_bk.txt");
+		autotext.setCache(100, 1, TimeUnit.HOURS);
+
+		ArrayList<String> corrections = autotext.autocorrect("recieve");
+		assertEquals(Arrays.asList("receive"), corrections);
+		//results are copies, changing one does not change the cache
+		corrections.clear();
+		assertEquals(Arrays.asList("receive"), autotext.autocorrect("recieve"));
+		assertEquals(1, autotext.getCorrectionCache().getHits());
+
+		assertEquals(autotext.autocomplete("con"), autotext.autocomplete("con"));
+		assertEquals(1, autotext.getSuggestionCache().getHits());
+
+		//adding words clears the cache
+		File file = File.createTempFile("autotext", ".txt");
+		file.deleteOnExit();
+		FileWriter writer = new FileWriter(file);
+		writer.write("recieved\n");
+		writer.close();
+
+		autotext.addWordsFromFileAutocorrect(file.getPath());
+		assertEquals(0, autotext.getCorrectionCache().size());
+		assertEquals(Arrays.asList("recieved"), autotext.autocorrect("recievd"));
+	}
+
+}
@@ -0,0 +1,142 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import main.java.kashiish.autotext.AutoText;
+import main.java.kashiish.autotext.Correction;
+import main.java.kashiish.autotext.SpellCheckPipeline;
+
+
+public class TestSpellCheckPipeline {
+	
+	@Rule
+    public ExpectedException thrown = ExpectedException.none();
+	
+	private static final String[] WORDS = {"where", "recieve", "the", "whre", "don't", "gogle", "mail", "amazin", "xkcdqj", "i"};
+	private static final String[] SEPARATORS = {" ", ", ", ".\n", " - ", "\n\n", "'"};
+	/* No-break space, em dash and curly quotes, and a word with a letter outside ASCII */
+	private static final String[] UNICODE_SEPARATORS = {"\u00A0", "\u2014", " \u201C", "\u201D ", "\u2019", " caf\u00E9 "};
+	
+	private AutoText autotext;
+	private SpellCheckPipeline pipeline;
+	
+	@Before
+	public void setUpPipeline() throws IOException {
+		autotext = new AutoText("src/test/resources/test_words_bk.txt");
+		pipeline = new SpellCheckPipeline(autotext);
+	}
+	
+	@Test
+	public void testSameAsCorrectText() throws IOException {
+		String text = randomText(new Random(3), 2000);
+		File file = createFile(text);
+		
+		//small chunks end at many word boundaries
+		for(int chunkSize : new int[]{64, 1000, SpellCheckPipeline.DEFAULT_CHUNK_SIZE}) {
+			pipeline.setChunkSize(chunkSize);
+			pipeline.setThreads(3);
+			
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			long count = pipeline.check(out, file.getPath());
+			
+			assertEquals(expectedLines(file.getPath(), text), out.toString("UTF-8"));
+			assertEquals(autotext.correctText(text).size(), count);
+		}
+	}
+	
+	@Test
+	public void testFiles() throws IOException {
+		String first = randomText(new Random(5), 300);
+		String second = randomText(new Random(6), 300);
+		File empty = createFile("");
+		File firstFile = createFile(first);
+		File secondFile = createFile(second);
+		
+		pipeline.setChunkSize(100);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		pipeline.check(out, firstFile.getPath(), empty.getPath(), secondFile.getPath());
+		
+		assertEquals(expectedLines(firstFile.getPath(), first) + expectedLines(secondFile.getPath(), second), out.toString("UTF-8"));
+		assertEquals(0, pipeline.check(new ByteArrayOutputStream(), empty.getPath()));
+	}
+	
+	@Test
+	public void testUnicodeSeparators() throws IOException {
+		String text = "recieve\u00A0whre\u2014gogle";
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(3, pipeline.check(out, createFile(text).getPath()));
+		
+		//chunks also end at characters outside ASCII that are not letters, and never inside a character
+		Random random = new Random(7);
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < 1000; i++) {
+			builder.append(WORDS[random.nextInt(WORDS.length)]).append(UNICODE_SEPARATORS[random.nextInt(UNICODE_SEPARATORS.length)]);
+		}
+		text = builder.toString();
+		File file = createFile(text);
+		
+		for(int chunkSize : new int[]{37, 64, 1000}) {
+			pipeline.setChunkSize(chunkSize);
+			out = new ByteArrayOutputStream();
+			long count = pipeline.check(out, file.getPath());
+			
+			assertEquals(expectedLines(file.getPath(), text), out.toString("UTF-8"));
+			assertEquals(autotext.correctText(text).size(), count);
+		}
+	}
+	
+	@Test
+	public void testMissingFile() throws IOException {
+		thrown.expect(IOException.class);
+		pipeline.check(new ByteArrayOutputStream(), "src/test/resources/missing.txt");
+	}
+	
+	@Test
+	public void testInvalidChunkSize() {
+		thrown.expect(IllegalArgumentException.class);
+		pipeline.setChunkSize(0);
+	}
+	
+	private String expectedLines(String fileName, String text) {
+		StringBuilder lines = new StringBuilder();
+		for(Correction correction : autotext.correctText(text)) {
+			//the pipeline writes byte offsets
+			int start = text.substring(0, correction.getStart()).getBytes(StandardCharsets.UTF_8).length;
+			lines.append(fileName + "\t" + start + "\t" + correction.getWord() + "\t" + 
+						 String.join(",", correction.getCorrections()) + "\n");
+		}
+		return lines.toString();
+	}
+	
+	private String randomText(Random random, int words) {
+		StringBuilder text = new StringBuilder();
+		for(int i = 0; i < words; i++) {
+			text.append(WORDS[random.nextInt(WORDS.length)]).append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+		}
+		return text.toString();
+	}
+	
+	private File createFile(String text) throws IOException {
+		File file = File.createTempFile("spellcheck", ".txt");
+		file.deleteOnExit();
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+		writer.write(text);
+		writer.close();
+		return file;
+	}
+
+}
@@ -0,0 +1,89 @@
+package test.java.kashiish.autotext;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import main.java.kashiish.autotext.Lexicon;
+import main.java.kashiish.autotext.autocorrect.SymSpell;
+
+
+public class TestSymSpell {
+	
+	@Rule
+    public ExpectedException thrown = ExpectedException.none();
+	
+	private SymSpell symspell;
+	
+	@Before
+	public void setUpSymSpell() throws IOException {
+		symspell = new SymSpell("src/test/resources/test_words_bk.txt");	
+	}
+	
+	@Test
+	public void testSymSpellCreation() {
+		//the number of words in test_words.txt is 3503
+		assertEquals(3503, symspell.getNumWords());
+	}
+	
+	@Test
+	public void testInvalidInsertions() {
+		thrown.expect(IllegalArgumentException.class);
+		symspell.insertWord(null);
+		symspell.insertWord("");
+	}
+	
+	@Test
+	public void testClosestWords() {
+		//transposition
+		testCloseWordsHelper("recieve", new String[]{"receive"});
+		//missing character
+		testCloseWordsHelper("whre", new String[]{"where"});
+		//missing character + substitution 
+		testCloseWordsHelper("amazin", new String[]{"amazon", "amazing"});
+		//missing consecutive character
+		testCloseWordsHelper("gogle", new String[]{"google"});
+		testCloseWordsHelper("asessment", new String[]{"assessment"});
+		//substitution, 'y' is closer to 't' than 'w' on qwerty keyboard
+		testCloseWordsHelper("yhere", new String[]{"there"});
+		//deletion
+		testCloseWordsHelper("utillities", new String[]{"utilities"});
+		testCloseWordsHelper("janurary", new String[]{"january"});
+		
+		assertTrue(symspell.getClosestWords("").isEmpty());
+	}
+	
+	@Test
+	public void testSettings() throws IOException {
+		Lexicon lexicon = new Lexicon("src/test/resources/test_words_bk.txt");
+		SymSpell small = new SymSpell(lexicon, 1, 5);
+		assertTrue(small.getNumDeletes() < symspell.getNumDeletes());
+		assertEquals(new HashSet<>(Arrays.asList("receive")), new HashSet<>(small.getClosestWords("recieve")));
+		
+		thrown.expect(IllegalArgumentException.class);
+		new SymSpell(lexicon, 2, 2);
+	}
+	
+	@Test
+	public void testRemoveWords() {
+		assertTrue(symspell.removeWord("receive"));
+		assertFalse(symspell.removeWord("receive"));
+		assertEquals(3502, symspell.getNumWords());
+		assertFalse(symspell.getClosestWords("recieve").contains("receive"));
+		
+		symspell.insertWord("receive");
+		testCloseWordsHelper("recieve", new String[]{"receive"});
+	}
+	
+	private void testCloseWordsHelper(String word, String[] expected) {
+		assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(symspell.getClosestWords(word)));
+	}
+
+}
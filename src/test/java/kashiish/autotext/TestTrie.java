@@ -3,15 +3,21 @@ package test.java.kashiish.autotext;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.stream.Collectors;
 
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import main.java.kashiish.autotext.Lexicon;
 import main.java.kashiish.autotext.autocomplete.Trie;
+import main.java.kashiish.autotext.autocomplete.TrieCursor;
+import main.java.kashiish.autotext.autocomplete.TrieIterator;
 
 
 public class TestTrie {
@@ -66,6 +72,214 @@ public class TestTrie {
 		assertEquals(maxMatches, trie.getWordsWithPrefix("a").size());
 	}
 	
+	@Test
+	public void testRankedSuggestions() throws IOException {
+		Trie ranked = new Trie(new Lexicon("src/test/resources/test_words_weighted.txt"), 3);
+		ranked.setMaxMatches(3);
+		assertEquals(Arrays.asList("fast", "father", "farm"), ranked.getWordsWithPrefix("fa"));
+		assertEquals(Arrays.asList("farm", "farmer", "farming"), ranked.getWordsWithPrefix("farm"));
+		//equal counts are ordered alphabetically
+		assertEquals(Arrays.asList("zero", "zone"), ranked.getWordsWithPrefix("z"));
+		
+		//more matches than are cached at each node
+		ranked.setMaxMatches(5);
+		assertEquals(Arrays.asList("fast", "father", "farm", "fat", "farmer"), ranked.getWordsWithPrefix("fa"));
+	}
+	
+	@Test
+	public void testRankedCountUpdates() throws IOException {
+		Trie ranked = new Trie(new Lexicon("src/test/resources/test_words_weighted.txt"), 3);
+		ranked.setMaxMatches(3);
+		ranked.insertWord("farthest", 2000);
+		assertEquals(Arrays.asList("farthest", "fast", "father"), ranked.getWordsWithPrefix("fa"));
+		
+		//a lower count lets the next best word back into the cached completions
+		ranked.insertWord("farthest", 5);
+		ranked.insertWord("fast", 5);
+		assertEquals(Arrays.asList("father", "farm", "fat"), ranked.getWordsWithPrefix("fa"));
+	}
+	
+	@Test
+	public void testCursor() {
+		TrieCursor cursor = trie.cursor();
+		for(char c : "Wri".toCharArray()) cursor.append(c);
+		assertEquals("wri", cursor.getPrefix());
+		assertEquals(new HashSet<>(trie.getWordsWithPrefix("wri")), new HashSet<>(cursor.getWords()));
+		
+		//leaving the trie and coming back
+		cursor.append('q');
+		cursor.append('q');
+		assertTrue(cursor.getWords().isEmpty());
+		cursor.backspace();
+		cursor.backspace();
+		cursor.backspace();
+		assertEquals(new HashSet<>(trie.getWordsWithPrefix("wr")), new HashSet<>(cursor.getWords()));
+		
+		cursor.setPrefix("give ");
+		assertEquals(new HashSet<>(trie.getWordsWithPrefix("give ")), new HashSet<>(cursor.getWords()));
+		
+		cursor.reset();
+		cursor.backspace();
+		assertEquals(0, cursor.length());
+		assertTrue(cursor.getWords().isEmpty());
+	}
+	
+	@Test
+	public void testFuzzyPrefixSuggestions() {
+		trie.setMaxMatches(50);
+		//transposition
+		assertTrue(trie.getWordsWithFuzzyPrefix("recie", 1).containsAll(Arrays.asList("receive", "receipt", "recent")));
+		//exact matches come first
+		ArrayList<String> words = trie.getWordsWithFuzzyPrefix("writ", 1);
+		assertEquals(new HashSet<>(trie.getWordsWithPrefix("writ")), new HashSet<>(words.subList(0, 6)));
+		assertTrue(words.containsAll(Arrays.asList("wrist", "wait")));
+		//no edits is the same as an exact prefix
+		assertEquals(new HashSet<>(trie.getWordsWithPrefix("far")), new HashSet<>(trie.getWordsWithFuzzyPrefix("far", 0)));
+		assertFalse(trie.getWordsWithFuzzyPrefix("wirte", 1).contains("writing"));
+		
+		trie.setMaxMatches(3);
+		assertEquals(3, trie.getWordsWithFuzzyPrefix("recie", 1).size());
+	}
+	
+	@Test
+	public void testConcurrentInsertions() throws InterruptedException {
+		trie.setConcurrent(true);
+		trie.setMaxMatches(Integer.MAX_VALUE);
+		final TrieCursor cursor = trie.cursor();
+		cursor.setPrefix("qq");
+		
+		Thread writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				for(int i = 0; i < 500; i++) {
+					trie.insertWord("qq" + i);
+				}
+			}
+		});
+		writer.start();
+		
+		//a reader never sees fewer words than before
+		int found = 0;
+		while(writer.isAlive()) {
+			int size = trie.getWordsWithPrefix("qq").size();
+			assertTrue(size >= found);
+			found = size;
+		}
+		writer.join();
+		
+		assertEquals(3836 + 500, trie.getNumWords());
+		assertEquals(500, trie.getWordsWithPrefix("qq").size());
+		//the cursor keeps the version of the trie it was created on
+		assertTrue(cursor.getWords().isEmpty());
+		cursor.reset();
+		cursor.setPrefix("qq");
+		assertEquals(500, cursor.getWords().size());
+	}
+	
+	@Test
+	public void testRemoveWords() {
+		assertTrue(trie.removeWord("writing"));
+		assertFalse(trie.removeWord("writing"));
+		assertFalse(trie.removeWord("writ"));
+		assertFalse(trie.getWordsWithPrefix("writ").contains("writing"));
+		assertTrue(trie.getWordsWithPrefix("writ").contains("write"));
+		assertEquals(3835, trie.getNumWords());
+		
+		//the branch of a removed word is pruned
+		trie.insertWord("qwerty");
+		assertTrue(trie.removeWord("qwerty"));
+		assertTrue(trie.getWordsWithPrefix("qwert").isEmpty());
+		
+		thrown.expect(IllegalArgumentException.class);
+		trie.removeWord("");
+	}
+	
+	@Test
+	public void testReinsertWords() {
+		//a word inserted twice is only counted once
+		trie.insertWord("qqcat");
+		trie.insertWord("qqcat");
+		assertEquals(3837, trie.getNumWords());
+		assertTrue(trie.removeWord("qqcat"));
+		assertEquals(3836, trie.getNumWords());
+		
+		trie.insertWord("write");
+		assertEquals(3836, trie.getNumWords());
+	}
+	
+	@Test
+	public void testRankedReinsertion() throws IOException {
+		Trie ranked = new Trie(new Lexicon("src/test/resources/test_words_weighted.txt"), 3);
+		ranked.insertWord("zebra", 1000);
+		ranked.insertWord("zebrb", 500);
+		assertEquals(Arrays.asList("zebra", "zebrb"), ranked.getWordsWithPrefix("zeb"));
+		
+		//a word inserted without a count keeps the count it has
+		ranked.insertWord("zebra");
+		assertEquals(Arrays.asList("zebra", "zebrb"), ranked.getWordsWithPrefix("zeb"));
+		ranked.addWordsFromFile("src/test/resources/test_words_trie.txt");
+		ranked.setMaxMatches(3);
+		assertEquals(Arrays.asList("fast", "father", "farm"), ranked.getWordsWithPrefix("fa"));
+		
+		ranked.insertWord("zebra", 1);
+		assertEquals(Arrays.asList("zebrb", "zebra"), ranked.getWordsWithPrefix("zeb"));
+	}
+	
+	@Test
+	public void testRemoveRankedWords() throws IOException {
+		Trie ranked = new Trie(new Lexicon("src/test/resources/test_words_weighted.txt"), 3);
+		ranked.setMaxMatches(3);
+		assertEquals(Arrays.asList("fast", "father", "farm"), ranked.getWordsWithPrefix("fa"));
+		
+		ranked.removeWord("father");
+		assertEquals(Arrays.asList("fast", "farm", "fat"), ranked.getWordsWithPrefix("fa"));
+		assertEquals(Arrays.asList("fat"), ranked.getWordsWithPrefix("fat"));
+		assertTrue(ranked.getWordsWithPrefix("fath").isEmpty());
+	}
+	
+	@Test
+	public void testIterator() {
+		trie.setMaxMatches(Integer.MAX_VALUE);
+		ArrayList<String> expected = trie.getWordsWithPrefix("re");
+		Collections.sort(expected);
+		
+		ArrayList<String> words = new ArrayList<String>();
+		TrieIterator iterator = trie.iterator("re");
+		while(iterator.hasNext()) {
+			words.add(iterator.next());
+		}
+		assertEquals(expected, words);
+		
+		assertEquals(expected.subList(0, 3), trie.stream("RE").limit(3).collect(Collectors.toList()));
+		assertFalse(trie.iterator("qqq").hasNext());
+		assertFalse(trie.iterator("").hasNext());
+	}
+	
+	@Test
+	public void testIteratorPages() {
+		trie.setMaxMatches(Integer.MAX_VALUE);
+		ArrayList<String> expected = trie.getWordsWithPrefix("con");
+		Collections.sort(expected);
+		
+		//read the words 7 at a time, starting each page from the last page's token
+		ArrayList<String> words = new ArrayList<String>();
+		String token = null;
+		do {
+			TrieIterator page = trie.iterator("con", token);
+			for(int i = 0; i < 7 && page.hasNext(); i++) {
+				words.add(page.next());
+			}
+			token = page.hasNext() ? page.getContinuationToken() : null;
+		} while(token != null);
+		assertEquals(expected, words);
+		
+		//the token does not have to be a word
+		assertEquals("constant", trie.iterator("con", "conso").next());
+		
+		thrown.expect(IllegalArgumentException.class);
+		trie.iterator("con", "cat");
+	}
+	
 	private void testPrefixSuggestions(String prefix, String[] expected) {
 		assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(trie.getWordsWithPrefix(prefix)));
 	}
@@ -0,0 +1,62 @@
+package test.java.kashiish.autotext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import main.java.kashiish.autotext.Lexicon;
+
+
+/**
+ * Random typos of words, for the tests that compare searches over many misspelled words.
+ * @author kashish
+ *
+ */
+final class Typos {
+	
+	private Typos() {}
+	
+	/**
+	 * Makes one to three random edits (substitutions, insertions, deletions and transpositions) to a word.
+	 * @param word			String
+	 * @param random		Random
+	 * @return String
+	 */
+	static String typo(String word, Random random) {
+		StringBuilder typo = new StringBuilder(word);
+		for(int edits = 1 + random.nextInt(3); edits > 0; edits--) {
+			int k = random.nextInt(typo.length());
+			switch(random.nextInt(4)) {
+				case 0: typo.setCharAt(k, (char) ('a' + random.nextInt(26))); break;
+				case 1: typo.insert(k, (char) ('a' + random.nextInt(26))); break;
+				case 2: if(typo.length() > 1) typo.deleteCharAt(k); break;
+				default:
+					if(k + 1 < typo.length()) {
+						char c = typo.charAt(k);
+						typo.setCharAt(k, typo.charAt(k + 1));
+						typo.setCharAt(k + 1, c);
+					}
+			}
+		}
+		return typo.toString();
+	}
+	
+	/**
+	 * Replaces one character of about one in twenty words of a file with a random letter.
+	 * @param fileName				String
+	 * @param random				Random
+	 * @return ArrayList<String>
+	 * @throws IOException
+	 */
+	static ArrayList<String> substitutions(String fileName, Random random) throws IOException {
+		ArrayList<String> typos = new ArrayList<String>();
+		for(String word : new Lexicon(fileName).getLexicon()) {
+			if(random.nextInt(20) != 0 || word.length() < 2) continue;
+			
+			int i = random.nextInt(word.length());
+			typos.add(word.substring(0, i) + (char) ('a' + random.nextInt(26)) + word.substring(i + 1));
+		}
+		return typos;
+	}
+
+}